@@ -0,0 +1,44 @@
+package com.reservaja.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservaja.exception.ApiError;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiErrorSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ApiError simpleError;
+    private ApiError validationError;
+
+    @Setup
+    public void setup() {
+        // mesma configuração base que o Spring MVC usa
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        simpleError = new ApiError(HttpStatus.CONFLICT, "Sala já reservada neste horário", "/api/reservations", null);
+        validationError = new ApiError(HttpStatus.BAD_REQUEST, "Erro de validação", "/api/auth/login",
+            List.of("email: Please provide a valid email address", "password: Password is required"));
+    }
+
+    @Benchmark
+    public String conflict() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(simpleError);
+    }
+
+    @Benchmark
+    public String validation() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(validationError);
+    }
+}
@@ -0,0 +1,41 @@
+package com.reservaja.benchmarks;
+
+import com.reservaja.security.CostAwareBCryptPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de CPU do BCrypt por custo, para dimensionar app.security.bcrypt.strength
+ * e o pool de hashing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private CostAwareBCryptPasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        encoder = new CostAwareBCryptPasswordEncoder(strength);
+        encoded = encoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("s3cret-password", encoded);
+    }
+}
@@ -0,0 +1,65 @@
+package com.reservaja.benchmarks;
+
+import com.reservaja.service.reservation.RoomCalendarIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checagem de sobreposição no índice em memória com diferentes densidades de calendário
+ * (reservas de 1h, sem sobreposição, na mesma sala).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarOverlapBenchmark {
+
+    private static final long ROOM_ID = 1L;
+    private static final int WINDOWS = 1024;
+
+    @Param({"10", "1000", "100000"})
+    public int reservations;
+
+    private RoomCalendarIndex index;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        index = new RoomCalendarIndex(null);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        // uma reserva a cada 2h: metade das janelas consultadas cai em horário livre
+        for (int i = 0; i < reservations; i++) {
+            LocalDateTime start = base.plusHours(2L * i);
+            index.add((long) i, ROOM_ID, start, start.plusHours(1));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        starts = new LocalDateTime[WINDOWS];
+        ends = new LocalDateTime[WINDOWS];
+        for (int i = 0; i < WINDOWS; i++) {
+            LocalDateTime start = base.plusMinutes(random.nextLong(reservations * 120L));
+            starts[i] = start;
+            ends[i] = start.plusMinutes(30);
+        }
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        int i = cursor++ & (WINDOWS - 1);
+        return index.isFree(ROOM_ID, starts[i], ends[i]);
+    }
+
+    @Benchmark
+    public long[] findOverlapping() {
+        int i = cursor++ & (WINDOWS - 1);
+        return index.findOverlapping(ROOM_ID, starts[i], ends[i]);
+    }
+}
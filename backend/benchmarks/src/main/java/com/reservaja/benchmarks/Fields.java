@@ -0,0 +1,20 @@
+package com.reservaja.benchmarks;
+
+import java.lang.reflect.Field;
+
+// preenche campos @Value fora do contexto Spring
+final class Fields {
+
+    private Fields() {
+    }
+
+    static void set(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Campo não encontrado: " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.reservaja.benchmarks;
+
+import com.reservaja.security.JwtTokenProvider;
+import com.reservaja.service.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da autenticação JWT: emissão, validação e o caminho do filtro
+ * (verify + UserPrincipal a partir das claims), com o cache de tokens desligado (0) e ligado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"0", "10000"})
+    public long cacheMaxSize;
+
+    private JwtTokenProvider provider;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider();
+        Fields.set(provider, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret");
+        Fields.set(provider, "jwtExpirationMs", 3_600_000L);
+        Fields.set(provider, "cacheMaxSize", cacheMaxSize);
+        Fields.set(provider, "cacheTtlMs", 300_000L);
+        provider.init();
+
+        principal = new UserPrincipal(42L, "Bench User", "bench@reservaja.com", null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = provider.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    // o que o JwtAuthenticationFilter faz a cada requisição autenticada
+    @Benchmark
+    public UserPrincipal filterPath() {
+        Claims claims = provider.verify(token);
+        return provider.getPrincipal(claims);
+    }
+}
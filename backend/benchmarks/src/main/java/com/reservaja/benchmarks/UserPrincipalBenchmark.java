@@ -0,0 +1,34 @@
+package com.reservaja.benchmarks;
+
+import com.reservaja.model.entity.User;
+import com.reservaja.service.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserPrincipalBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setup() {
+        user = User.builder()
+                .id(42L)
+                .name("Bench User")
+                .email("bench@reservaja.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .role(User.Role.ROLE_USER)
+                .build();
+    }
+
+    @Benchmark
+    public UserPrincipal create() {
+        return UserPrincipal.create(user);
+    }
+}
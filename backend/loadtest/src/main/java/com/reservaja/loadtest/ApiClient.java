@@ -0,0 +1,74 @@
+package com.reservaja.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+// cliente HTTP mínimo para os endpoints exercitados no teste
+final class ApiClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    HttpResponse<String> post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // repete enquanto o servidor responder 503 (filas saturadas durante o preparo)
+    HttpResponse<String> postWithRetry(String path, String token, Object body) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = post(path, token, body);
+            if (response.statusCode() != 503 || attempt >= 50) {
+                return response;
+            }
+            Thread.sleep(50L * (attempt + 1));
+        }
+    }
+
+    String login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = postWithRetry("/api/auth/login", null,
+            Map.of("email", email, "password", password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login falhou para " + email + ": " + response.statusCode() + " " + response.body());
+        }
+        return MAPPER.readTree(response.body()).get("accessToken").asText();
+    }
+
+    JsonNode readJson(HttpResponse<String> response) throws IOException {
+        return MAPPER.readTree(response.body());
+    }
+}
@@ -0,0 +1,335 @@
+package com.reservaja.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reservaja.ReservaJaApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga offline: sobe o backend (ou usa um já rodando), prepara salas e usuários e
+ * dispara o cenário escolhido com N clientes concorrentes, reportando vazão, histogramas de
+ * latência e a taxa de conflitos (409) contra reservas bem-sucedidas.
+ *
+ * Opções:
+ * <pre>
+ *   --scenario=booking|login|register|mixed   (padrão booking)
+ *   --concurrency=32 --duration=30 --warmup=5 (segundos)
+ *   --rooms=50 --users=200 --days=30
+ *   --skew=1.1            expoente Zipf da escolha de sala (0 = uniforme)
+ *   --base-url=URL        ataca uma instância existente em vez de subir a aplicação
+ *   --db-url=jdbc:postgresql://... --db-user=... --db-password=...   Postgres local
+ *   --output=target/loadtest-result.json
+ *   --spring.* / --app.*  repassadas à aplicação embarcada, ex.:
+ *                         --app.admission.enabled=true religa o controle de admissão
+ *                         (desligado por padrão: todos os clientes simulados têm o mesmo IP)
+ * </pre>
+ *
+ * Comparação de threads de plataforma com virtual threads (rodar com Java 21 e o backend
+ * compilado com -Pjava21): a aplicação sobe uma vez por modo, com o mesmo pool do Hikari,
+ * e o cenário roda em cada nível de clientes; a tabela sai lado a lado no fim.
+ * <pre>
+ *   --thread-modes=platform,virtual   platform: pool do Tomcat; virtual: profile virtual-threads
+ *   --concurrency-levels=64,256,1024  (padrão: --concurrency)
+ *   --db-pool-size=20                 maximum-pool-size do Hikari nos dois modos
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    private final LoadTestOptions options;
+    private final int concurrency;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registrations = new AtomicLong();
+
+    private ApiClient client;
+    private List<Long> roomIds;
+    private List<String> tokens;
+    private List<String> emails;
+    private ZipfSampler roomSampler;
+
+    LoadTest(LoadTestOptions options, int concurrency) {
+        this.options = options;
+        this.concurrency = concurrency;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (!options.threadModes().isEmpty()) {
+            writeReport(options, compareThreadModes(options));
+            return;
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            context = startApplication(options, List.of());
+            baseUrl = baseUrl(context);
+        }
+
+        try {
+            writeReport(options, new LoadTest(options, options.concurrency()).run(baseUrl));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, Object> compareThreadModes(LoadTestOptions options) throws Exception {
+        if (options.baseUrl() != null) {
+            throw new IllegalArgumentException("--thread-modes sobe a aplicação embarcada em cada modo; não combina com --base-url");
+        }
+        if (options.threadModes().contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("O modo virtual precisa de Java 21 (rodando em " + Runtime.version() + ")");
+        }
+
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (String mode : options.threadModes()) {
+            List<String> modeArgs = new ArrayList<>(switch (mode) {
+                case "platform" -> List.of("--spring.threads.virtual.enabled=false");
+                case "virtual" -> List.of("--spring.profiles.active=virtual-threads");
+                default -> throw new IllegalArgumentException("Modo de thread desconhecido: " + mode);
+            });
+            modeArgs.add("--spring.datasource.hikari.maximum-pool-size=" + options.dbPoolSize());
+
+            ConfigurableApplicationContext context = startApplication(options, modeArgs);
+            try {
+                for (int concurrency : options.concurrencyLevels()) {
+                    System.out.printf("== %s, %d clientes ==%n", mode, concurrency);
+                    Map<String, Object> report = new LinkedHashMap<>();
+                    report.put("threadMode", mode);
+                    report.putAll(new LoadTest(options, concurrency).run(baseUrl(context)));
+                    runs.add(report);
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        printSideBySide(runs);
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("dbPoolSize", options.dbPoolSize());
+        comparison.put("javaVersion", System.getProperty("java.version"));
+        comparison.put("runs", runs);
+        return comparison;
+    }
+
+    // uma linha por nível de clientes e modo, os modos do mesmo nível juntos
+    @SuppressWarnings("unchecked")
+    private static void printSideBySide(List<Map<String, Object>> runs) {
+        System.out.printf("%n%8s  %-9s %10s %10s %10s %10s %9s %9s%n",
+            "clientes", "modo", "req/s", "p50 ms", "p99 ms", "p999 ms", "rejeições", "erros");
+        runs.stream()
+            .sorted(Comparator.comparing(run -> (Integer) run.get("concurrency")))
+            .forEach(run -> {
+                Map<String, Object> results = (Map<String, Object>) run.get("results");
+                Map<String, Object> latency = (Map<String, Object>) results.get("latencyMicros");
+                Map<String, Object> outcomes = (Map<String, Object>) results.get("outcomes");
+                System.out.printf("%8d  %-9s %10.1f %10.2f %10.2f %10.2f %9d %9d%n",
+                    run.get("concurrency"), run.get("threadMode"), results.get("throughputPerSecond"),
+                    millis(latency.get("p50")), millis(latency.get("p99")), millis(latency.get("p999")),
+                    ((Map<String, Object>) outcomes.get("rejected")).get("count"),
+                    ((Map<String, Object>) outcomes.get("error")).get("count"));
+            });
+        System.out.println();
+    }
+
+    private static double millis(Object micros) {
+        return micros == null ? Double.NaN : ((Number) micros).doubleValue() / 1000;
+    }
+
+    private static void writeReport(LoadTestOptions options, Map<String, Object> report) throws Exception {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(mapper.writeValueAsString(report));
+
+        File output = new File(options.output());
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        mapper.writeValue(output, report);
+        System.out.println("Resultado salvo em " + output.getPath());
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    // modeArgs entram depois dos padrões e antes das opções do usuário
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options, List<String> modeArgs) {
+        List<String> args = new ArrayList<>();
+        if (options.dbUrl() != null) {
+            args.add("--spring.datasource.url=" + options.dbUrl());
+            args.add("--spring.datasource.username=" + options.dbUser());
+            args.add("--spring.datasource.password=" + options.dbPassword());
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        }
+        args.add("--server.port=0");
+        args.add("--spring.jpa.show-sql=false");
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.org.springframework.security=WARN");
+        args.add("--app.jwt.secret=" + UUID.randomUUID() + UUID.randomUUID());
+        // todos os clientes simulados saem do mesmo IP: os limites por IP mediriam só o limitador
+        args.add("--app.admission.enabled=false");
+        args.addAll(modeArgs);
+
+        return new SpringApplicationBuilder(ReservaJaApplication.class).run(options.applicationArgs(args).toArray(String[]::new));
+    }
+
+    Map<String, Object> run(String baseUrl) throws Exception {
+        client = new ApiClient(baseUrl);
+        prepare();
+
+        ScenarioStats stats = new ScenarioStats();
+        System.out.printf("Aquecimento (%ds)...%n", options.warmupSeconds());
+        drive(stats, options.warmupSeconds());
+        stats.reset();
+
+        System.out.printf("Medindo cenário '%s' com %d clientes por %ds...%n",
+            options.scenario(), concurrency, options.durationSeconds());
+        long started = System.nanoTime();
+        drive(stats, options.durationSeconds());
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", options.scenario());
+        report.put("concurrency", concurrency);
+        report.put("durationSeconds", elapsedSeconds);
+        report.put("rooms", options.rooms());
+        report.put("users", options.users());
+        report.put("skew", options.skew());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("results", stats.snapshot(elapsedSeconds));
+        return report;
+    }
+
+    // administrador, salas e usuários com token
+    private void prepare() throws Exception {
+        String adminEmail = "admin-" + runId + "@loadtest.local";
+        client.postWithRetry("/api/auth/register", null,
+            Map.of("name", "Load Test Admin", "email", adminEmail, "password", PASSWORD, "role", "ROLE_ADMIN"));
+        String adminToken = client.login(adminEmail, PASSWORD);
+
+        roomIds = new ArrayList<>();
+        for (int i = 0; i < options.rooms(); i++) {
+            HttpResponse<String> response = client.postWithRetry("/api/rooms", adminToken,
+                Map.of("name", "lt-" + runId + "-" + i, "capacity", 2 + (i % 20)));
+            roomIds.add(client.readJson(response).get("id").asLong());
+        }
+        roomSampler = new ZipfSampler(roomIds.size(), options.skew());
+
+        emails = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            emails.add("user-" + runId + "-" + i + "@loadtest.local");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, 32));
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (String email : emails) {
+                futures.add(executor.submit(() -> {
+                    client.postWithRetry("/api/auth/register", null,
+                        Map.of("name", "Load Test User", "email", email, "password", PASSWORD));
+                    return client.login(email, PASSWORD);
+                }));
+            }
+            tokens = new ArrayList<>();
+            for (Future<String> future : futures) {
+                tokens.add(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        System.out.printf("Preparado: %d salas, %d usuários%n", roomIds.size(), tokens.size());
+    }
+
+    private void drive(ScenarioStats stats, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    ScenarioStats.Outcome outcome;
+                    try {
+                        outcome = ScenarioStats.classify(execute());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception ex) {
+                        outcome = ScenarioStats.Outcome.ERROR;
+                    }
+                    stats.record(outcome, System.nanoTime() - started);
+                }
+            }, "loadtest-client-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private int execute() throws Exception {
+        return switch (options.scenario()) {
+            case "booking" -> book();
+            case "login" -> login();
+            case "register" -> register();
+            case "mixed" -> {
+                int dice = ThreadLocalRandom.current().nextInt(100);
+                yield dice < 10 ? login() : dice < 15 ? register() : book();
+            }
+            default -> throw new IllegalArgumentException("Cenário desconhecido: " + options.scenario());
+        };
+    }
+
+    // reserva de 30 min começando em múltiplo de 15 min entre 8h e 18h, em uma sala escolhida por Zipf
+    private int book() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = LocalDate.now()
+                .plusDays(1 + random.nextInt(options.days()))
+                .atTime(8, 0)
+                .plusMinutes(15L * random.nextInt(40));
+
+        Map<String, Object> body = Map.of(
+            "roomId", roomIds.get(roomSampler.next()),
+            "startTime", start.toString(),
+            "endTime", start.plusMinutes(30).toString()
+        );
+        return client.post("/api/reservations", tokens.get(random.nextInt(tokens.size())), body).statusCode();
+    }
+
+    private int login() throws Exception {
+        String email = emails.get(ThreadLocalRandom.current().nextInt(emails.size()));
+        return client.post("/api/auth/login", null, Map.of("email", email, "password", PASSWORD)).statusCode();
+    }
+
+    private int register() throws Exception {
+        String email = "new-" + runId + "-" + registrations.incrementAndGet() + "@loadtest.local";
+        return client.post("/api/auth/register", null,
+            Map.of("name", "Load Test User", "email", email, "password", PASSWORD)).statusCode();
+    }
+}
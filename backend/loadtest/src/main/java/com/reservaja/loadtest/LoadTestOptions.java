@@ -0,0 +1,151 @@
+package com.reservaja.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// opções no formato --chave=valor; --spring.* e --app.* vão para a aplicação embarcada
+final class LoadTestOptions {
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg);
+            }
+            if (arg.startsWith("--spring.") || arg.startsWith("--app.") || arg.startsWith("--server.")) {
+                options.applicationArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                options.values.put(arg.substring(2), "true");
+            } else {
+                options.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    String scenario() {
+        return string("scenario", "booking");
+    }
+
+    int concurrency() {
+        return integer("concurrency", 32);
+    }
+
+    // comparação de modos de thread (platform, virtual); vazia = uma execução só
+    List<String> threadModes() {
+        String modes = values.get("thread-modes");
+        return modes == null ? List.of() : List.of(modes.split(","));
+    }
+
+    // níveis de clientes da comparação; padrão, só --concurrency
+    List<Integer> concurrencyLevels() {
+        String levels = values.get("concurrency-levels");
+        if (levels == null) {
+            return List.of(concurrency());
+        }
+        return Arrays.stream(levels.split(",")).map(Integer::parseInt).toList();
+    }
+
+    // pool do Hikari igual nos modos comparados: só a execução das requisições muda
+    int dbPoolSize() {
+        return integer("db-pool-size", 20);
+    }
+
+    int durationSeconds() {
+        return integer("duration", 30);
+    }
+
+    int warmupSeconds() {
+        return integer("warmup", 5);
+    }
+
+    int rooms() {
+        return integer("rooms", 50);
+    }
+
+    int users() {
+        return integer("users", 200);
+    }
+
+    // expoente da distribuição Zipf sobre as salas: 0 = uniforme, maior = salas "quentes" mais disputadas
+    double skew() {
+        return Double.parseDouble(string("skew", "1.1"));
+    }
+
+    // dias à frente e slots de 1h por dia (8h-18h) disponíveis para reserva
+    int days() {
+        return integer("days", 5);
+    }
+
+    String baseUrl() {
+        return values.get("base-url");
+    }
+
+    String dbUrl() {
+        return values.get("db-url");
+    }
+
+    String dbUser() {
+        return string("db-user", "postgres");
+    }
+
+    String dbPassword() {
+        return string("db-password", "postgres");
+    }
+
+    String output() {
+        return output("target/loadtest-result.json");
+    }
+
+    String output(String defaultPath) {
+        return string("output", defaultPath);
+    }
+
+    // StartupBenchmark: modos comparados, execuções por modo e diretório com os artefatos do backend
+    List<String> modes() {
+        return List.of(string("modes", "jvm,aot,cds-aot").split(","));
+    }
+
+    int runs() {
+        return integer("runs", 5);
+    }
+
+    String appDir() {
+        return string("app-dir", "target");
+    }
+
+    List<String> applicationArgs() {
+        return applicationArgs;
+    }
+
+    // padrões seguidos das opções do usuário; estas substituem o padrão de mesma chave
+    // (chave repetida na linha de comando viraria uma lista "a,b" no Spring)
+    List<String> applicationArgs(List<String> defaults) {
+        List<String> args = new ArrayList<>(defaults);
+        args.removeIf(arg -> applicationArgs.stream().anyMatch(userArg -> optionKey(userArg).equals(optionKey(arg))));
+        args.addAll(applicationArgs);
+        return args;
+    }
+
+    private static String optionKey(String arg) {
+        int equals = arg.indexOf('=');
+        return equals < 0 ? arg : arg.substring(0, equals);
+    }
+
+    private String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    private int integer(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+}
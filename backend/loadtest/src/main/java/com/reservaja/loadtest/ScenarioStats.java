@@ -0,0 +1,89 @@
+package com.reservaja.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// latências (em microssegundos) por resultado, em histogramas HdrHistogram
+final class ScenarioStats {
+
+    enum Outcome {
+        SUCCESS,
+        CONFLICT,
+        REJECTED,
+        ERROR
+    }
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Outcome, Recorder> recorders = new EnumMap<>(Outcome.class);
+
+    ScenarioStats() {
+        for (Outcome outcome : Outcome.values()) {
+            recorders.put(outcome, new Recorder(MAX_LATENCY_MICROS, 3));
+        }
+    }
+
+    static Outcome classify(int status) {
+        if (status >= 200 && status < 300) {
+            return Outcome.SUCCESS;
+        }
+        if (status == 409) {
+            return Outcome.CONFLICT;
+        }
+        if (status == 429 || status == 503) {
+            return Outcome.REJECTED;
+        }
+        return Outcome.ERROR;
+    }
+
+    void record(Outcome outcome, long elapsedNanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS);
+        recorders.get(outcome).recordValue(Math.max(1, micros));
+    }
+
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+    }
+
+    Map<String, Object> snapshot(double elapsedSeconds) {
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        Map<String, Object> outcomes = new LinkedHashMap<>();
+        Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+
+        for (Outcome outcome : Outcome.values()) {
+            Histogram histogram = recorders.get(outcome).getIntervalHistogram();
+            all.add(histogram);
+            counts.put(outcome, histogram.getTotalCount());
+            outcomes.put(outcome.name().toLowerCase(), summarize(histogram));
+        }
+
+        long decided = counts.get(Outcome.SUCCESS) + counts.get(Outcome.CONFLICT);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", all.getTotalCount());
+        result.put("throughputPerSecond", all.getTotalCount() / elapsedSeconds);
+        result.put("successPerSecond", counts.get(Outcome.SUCCESS) / elapsedSeconds);
+        result.put("conflictRate", decided == 0 ? 0.0 : (double) counts.get(Outcome.CONFLICT) / decided);
+        result.put("latencyMicros", summarize(all));
+        result.put("outcomes", outcomes);
+        return result;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            summary.put("p50", histogram.getValueAtPercentile(50));
+            summary.put("p90", histogram.getValueAtPercentile(90));
+            summary.put("p99", histogram.getValueAtPercentile(99));
+            summary.put("p999", histogram.getValueAtPercentile(99.9));
+            summary.put("max", histogram.getMaxValue());
+        }
+        return summary;
+    }
+}
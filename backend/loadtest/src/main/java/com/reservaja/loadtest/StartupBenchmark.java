@@ -0,0 +1,248 @@
+package com.reservaja.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a inicialização do backend em cada modo de build: para cada execução sobe o
+ * processo, mede o tempo até /actuator/health/readiness responder 200 e a latência das
+ * primeiras requisições (cadastro, login e listagem de salas, com JIT e caches frios),
+ * além da memória residente após subir.
+ *
+ * Modos (artefatos em --app-dir, gerados a partir de backend/):
+ * <pre>
+ *   jvm       java -jar do jar executável                       mvn package
+ *   aot       idem, com -Dspring.aot.enabled=true               mvn package -Paot
+ *   cds       jar -cds + lib/ com o arquivo CDS                 mvn package -Pcds
+ *   cds-aot   cds com AOT                                       mvn package -Pcds,aot
+ *   native    binário GraalVM                                   mvn -Pnative native:compile
+ * </pre>
+ * Um único {@code mvn package -Pcds,aot} atende jvm, aot e cds-aot.
+ *
+ * Uso (a partir de backend/; precisa de um PostgreSQL):
+ * <pre>
+ *   java -cp loadtest/target/loadtest.jar -Dloader.main=com.reservaja.loadtest.StartupBenchmark \
+ *       org.springframework.boot.loader.launch.PropertiesLauncher \
+ *       --db-url=jdbc:postgresql://localhost:5432/reservaja --db-user=... --db-password=... \
+ *       [--modes=jvm,aot,cds-aot] [--runs=5] [--app-dir=target] [--output=target/startup-result.json]
+ *       [--spring.* / --app.* repassadas ao backend]
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final String PASSWORD = "startup-password";
+    private static final long READY_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final LoadTestOptions options;
+    private final Path appDir;
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    StartupBenchmark(LoadTestOptions options) {
+        this.options = options;
+        this.appDir = Path.of(options.appDir()).toAbsolutePath();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.dbUrl() == null) {
+            throw new IllegalArgumentException("Informe --db-url: o backend sobe como processo separado, sem banco embarcado");
+        }
+
+        Map<String, Object> report = new StartupBenchmark(options).run();
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(mapper.writeValueAsString(report));
+
+        File output = new File(options.output("target/startup-result.json"));
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        mapper.writeValue(output, report);
+        System.out.println("Resultado salvo em " + output.getPath());
+    }
+
+    Map<String, Object> run() throws Exception {
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (String mode : options.modes()) {
+            List<Map<String, Double>> runs = new ArrayList<>();
+            for (int i = 0; i < options.runs(); i++) {
+                Map<String, Double> result = measure(mode, i);
+                System.out.printf("%s #%d: %s%n", mode, i + 1, result);
+                runs.add(result);
+            }
+            modes.put(mode, summarize(runs));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("runs", options.runs());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("modes", modes);
+        return report;
+    }
+
+    private Map<String, Double> measure(String mode, int run) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(command(mode));
+        command.addAll(options.applicationArgs(List.of(
+            "--server.port=" + port,
+            "--spring.datasource.url=" + options.dbUrl(),
+            "--spring.datasource.username=" + options.dbUser(),
+            "--spring.datasource.password=" + options.dbPassword(),
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            "--app.jwt.secret=" + UUID.randomUUID() + UUID.randomUUID()
+        )));
+
+        File log = new File("target/startup-" + mode + "-" + (run + 1) + ".log");
+        log.getParentFile().mkdirs();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            ApiClient client = new ApiClient("http://localhost:" + port);
+            awaitReady(client, process, log);
+            double startupMs = millisSince(started);
+            double rssMb = residentMegabytes(process.pid());
+
+            String email = "startup-" + UUID.randomUUID().toString().substring(0, 8) + "@loadtest.local";
+            long phase = System.nanoTime();
+            expect(client.post("/api/auth/register", null,
+                Map.of("name", "Startup Benchmark", "email", email, "password", PASSWORD)), 201);
+            double registerMs = millisSince(phase);
+
+            phase = System.nanoTime();
+            String token = client.login(email, PASSWORD);
+            double loginMs = millisSince(phase);
+
+            phase = System.nanoTime();
+            expect(client.get("/api/rooms", token), 200);
+            double firstQueryMs = millisSince(phase);
+
+            Map<String, Double> result = new LinkedHashMap<>();
+            result.put("startupMs", startupMs);
+            result.put("firstRegisterMs", registerMs);
+            result.put("firstLoginMs", loginMs);
+            result.put("firstQueryMs", firstQueryMs);
+            result.put("rssMb", rssMb);
+            return result;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(String mode) throws IOException {
+        return switch (mode) {
+            case "jvm" -> List.of(java, "-jar", jar("-exec.jar").toString());
+            case "aot" -> List.of(java, "-Dspring.aot.enabled=true", "-jar", jar("-exec.jar").toString());
+            case "cds" -> List.of(java, "-XX:SharedArchiveFile=" + file("app.jsa"), "-jar", jar("-cds.jar").toString());
+            case "cds-aot" -> List.of(java, "-XX:SharedArchiveFile=" + file("app.jsa"), "-Dspring.aot.enabled=true",
+                "-jar", jar("-cds.jar").toString());
+            case "native" -> List.of(file("reservaja").toString());
+            default -> throw new IllegalArgumentException("Modo desconhecido: " + mode);
+        };
+    }
+
+    // reservaja-<versão>-exec.jar (executável) ou reservaja-<versão>-cds.jar (com lib/)
+    private Path jar(String suffix) throws IOException {
+        try (var files = Files.list(appDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("reservaja-")
+                            && path.getFileName().toString().endsWith(suffix))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Jar *" + suffix + " não encontrado em " + appDir));
+        }
+    }
+
+    private Path file(String name) {
+        Path path = appDir.resolve(name);
+        if (!Files.exists(path)) {
+            throw new IllegalStateException(path + " não encontrado (build com o profile correspondente)");
+        }
+        return path;
+    }
+
+    private static void awaitReady(ApiClient client, Process process, File log) throws Exception {
+        long deadline = System.nanoTime() + READY_TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend encerrou ao subir (código " + process.exitValue() + "), ver " + log);
+            }
+            try {
+                if (client.get("/actuator/health/readiness", null).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // porta ainda fechada
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Backend não ficou pronto em 2 minutos, ver " + log);
+    }
+
+    private static void expect(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Esperado " + status + ", recebido " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    // VmRSS do /proc (Linux); NaN em outros sistemas
+    private static double residentMegabytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // sem /proc
+        }
+        return Double.NaN;
+    }
+
+    private static Map<String, Object> summarize(List<Map<String, Double>> runs) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (String metric : runs.get(0).keySet()) {
+            double[] values = runs.stream().mapToDouble(run -> run.get(metric)).sorted().toArray();
+            Map<String, Double> stats = new LinkedHashMap<>();
+            stats.put("min", values[0]);
+            stats.put("median", median(values));
+            stats.put("max", values[values.length - 1]);
+            summary.put(metric, stats);
+        }
+        return summary;
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static double millisSince(long started) {
+        return (System.nanoTime() - started) / 1e6;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.reservaja.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * {@code spring.flyway.enabled} lido em runtime. Sem AOT ele é a condição da autoconfiguração
+ * do Flyway; com AOT essa condição fica fixada no build (o bean do Flyway sempre existe) e é
+ * esta estratégia que deixa de migrar, como na execução de treino do CDS, que não tem banco.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${spring.flyway.enabled:true}") boolean enabled) {
+        return flyway -> {
+            if (enabled) {
+                flyway.migrate();
+            } else {
+                log.info("Migrations desligadas (spring.flyway.enabled=false)");
+            }
+        };
+    }
+}
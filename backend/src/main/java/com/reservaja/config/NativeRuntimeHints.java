@@ -0,0 +1,46 @@
+package com.reservaja.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflexão e recursos que o binário nativo (profile Maven "native") não descobre sozinho:
+ * o jjwt instancia suas implementações pelo nome da classe e o provedor JCache do cache de
+ * segundo nível é carregado pelo nome configurado, lendo a configuração HOCON do classpath.
+ * Sem efeito na JVM.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeRuntimeHints.Registrar.class)
+public class NativeRuntimeHints {
+
+    private static final List<String> REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider"
+    );
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : REFLECTIVE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+            hints.resources().registerPattern("hibernate-cache.conf");
+            // configuração padrão do Caffeine JCache (Typesafe Config)
+            hints.resources().registerPattern("reference.conf");
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.reservaja.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Manutenção da tabela {@code reservations} particionada por mês de {@code start_time} (apenas
+ * PostgreSQL; tabela, arquivo, função de histórico e trigger vêm das migrations V3 e V4).
+ * Partições mensais são criadas com {@code months-ahead} meses de antecedência, e reservas que
+ * já estavam na partição default mudam para a partição nova. Consultas por janela levam
+ * {@code start_time > início - duração máxima} e só tocam as partições do período; as do dia
+ * a dia, o mês corrente e os próximos.
+ *
+ * Meses com mais de {@code retention-months} meses saem das partições: as reservas de cada sala
+ * viram uma linha de {@code reservations_archive} (um array jsonb, comprimido pelo TOAST) e a
+ * partição é desanexada e removida. Relatórios leem as duas fontes pela função
+ * {@code reservations_history(from, to)}.
+ */
+@Component
+public class ReservationPartitioning {
+
+    public static final String ARCHIVE_TABLE = "reservations_archive";
+    public static final String HISTORY_FUNCTION = "reservations_history";
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationPartitioning.class);
+
+    private static final String PARTITION_PREFIX = "reservations_p";
+    private static final String DEFAULT_PARTITION = "reservations_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // chave da advisory lock que serializa a manutenção entre nós
+    private static final String MAINTENANCE_LOCK = "hashtext('reservations_partition_maintenance')";
+
+    // uma linha por sala e mês com as reservas em um array jsonb; meses já arquivados recebem as novas
+    private static final String ARCHIVE_SQL = """
+        WITH archived AS (%s)
+        INSERT INTO reservations_archive AS a (month, room_id, reservation_count, reservations)
+        SELECT date_trunc('month', start_time)::date, room_id, count(*),
+               jsonb_agg(jsonb_build_object('id', id, 'user_id', user_id, 'start_time', start_time, 'end_time', end_time)
+                         ORDER BY start_time, id)
+          FROM archived
+         GROUP BY 1, room_id
+        ON CONFLICT (month, room_id) DO UPDATE
+           SET reservation_count = a.reservation_count + excluded.reservation_count,
+               reservations = a.reservations || excluded.reservations
+        """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    private volatile boolean active;
+
+    public ReservationPartitioning(DataSource dataSource,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${app.partitions.retention-months:12}") int retentionMonths) {
+        if (monthsAhead < 1 || retentionMonths < 1) {
+            throw new IllegalArgumentException("app.partitions.months-ahead e retention-months devem ser positivos");
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // tabela particionada e função de histórico (migrations V3 e V4) presentes neste banco
+    public boolean isActive() {
+        return active;
+    }
+
+    // a tabela é convertida pela migration V3; aqui só se descobre se este banco a tem particionada
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws MetaDataAccessException {
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> metaData.getDatabaseProductName());
+        if (!"PostgreSQL".equals(product)) {
+            return;
+        }
+        active = "p".equals(jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('reservations')", String.class));
+        maintain();
+    }
+
+    /**
+     * Cria as partições do mês corrente até {@code months-ahead} meses à frente e arquiva as
+     * anteriores à retenção. Outro nó já em manutenção faz esta rodada ser pulada.
+     */
+    @Scheduled(cron = "0 15 0 * * *")
+    public void maintain() {
+        if (!active) {
+            return;
+        }
+        transaction.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(" + MAINTENANCE_LOCK + ")", Boolean.class);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                ensurePartition(current.plusMonths(i));
+            }
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            for (YearMonth month : partitionMonths()) {
+                if (month.isBefore(oldestKept)) {
+                    archive(month);
+                }
+            }
+            archiveDefault(oldestKept.atDay(1).atStartOfDay());
+        });
+    }
+
+    // reservas do mês que caíram na partição default (ex.: feitas além do horizonte) mudam para a nova
+    private void ensurePartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return;
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE reservations_moving ON COMMIT DROP AS "
+                + "SELECT id, user_id, room_id, start_time, end_time FROM reservations WITH NO DATA");
+        jdbcTemplate.update("""
+            WITH moved AS (
+                DELETE FROM %s WHERE start_time >= ? AND start_time < ?
+                RETURNING id, user_id, room_id, start_time, end_time
+            )
+            INSERT INTO reservations_moving SELECT * FROM moved
+            """.formatted(DEFAULT_PARTITION), from, to);
+
+        jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF reservations FOR VALUES FROM ('"
+                + from + "') TO ('" + to + "')");
+        addOverlapConstraint(partition);
+
+        int moved = jdbcTemplate.update("""
+            INSERT INTO reservations (id, user_id, room_id, start_time, end_time)
+            SELECT id, user_id, room_id, start_time, end_time FROM reservations_moving
+            """);
+        jdbcTemplate.execute("DROP TABLE reservations_moving");
+
+        log.info("Partição {} criada ({} reservas movidas da partição default)", partition, moved);
+    }
+
+    // a partição sai da tabela e é removida depois de copiada para o arquivo
+    private void archive(YearMonth month) {
+        String partition = partitionName(month);
+        int rooms = jdbcTemplate.update(ARCHIVE_SQL.formatted(
+                "SELECT id, user_id, room_id, start_time, end_time FROM " + partition));
+        jdbcTemplate.execute("ALTER TABLE reservations DETACH PARTITION " + partition);
+        jdbcTemplate.execute("DROP TABLE " + partition);
+
+        log.info("Partição {} arquivada em {} ({} salas)", partition, ARCHIVE_TABLE, rooms);
+    }
+
+    // reservas antigas sem partição do mês (ex.: importadas com data passada)
+    private void archiveDefault(LocalDateTime before) {
+        int rooms = jdbcTemplate.update(ARCHIVE_SQL.formatted(
+                "DELETE FROM " + DEFAULT_PARTITION + " WHERE start_time < ? RETURNING id, user_id, room_id, start_time, end_time"),
+                before);
+        if (rooms > 0) {
+            log.info("Reservas anteriores a {} da partição default arquivadas em {} ({} salas/mês)", before, ARCHIVE_TABLE, rooms);
+        }
+    }
+
+    private void addOverlapConstraint(String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + partition + " ADD CONSTRAINT " + partition
+                + "_no_overlap EXCLUDE USING gist (room_id WITH =, period WITH &&)");
+    }
+
+    private TreeSet<YearMonth> partitionMonths() {
+        List<String> names = jdbcTemplate.queryForList("""
+            SELECT c.relname
+              FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'reservations'::regclass
+            """, String.class);
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                try {
+                    months.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+                } catch (DateTimeParseException ex) {
+                    log.warn("Partição {} fora do padrão de nomes; ignorada na manutenção", name);
+                }
+            }
+        }
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + Objects.requireNonNull(month).format(PARTITION_SUFFIX);
+    }
+}
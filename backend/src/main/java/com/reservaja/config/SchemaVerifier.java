@@ -0,0 +1,126 @@
+package com.reservaja.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Confere no startup, depois das migrations, que o schema tem os índices dos caminhos quentes
+ * (migration V5 do PostgreSQL, V2 do H2), com o tipo e as colunas iniciais esperados. Um índice
+ * removido ou recriado diferente impede o startup. Se as consultas dos repositórios ainda usam
+ * esses índices é conferido pelo {@code RepositoryQueryPlansTest}, sobre o SQL que o Hibernate gera.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaVerifier {
+
+    public static final String RESERVATIONS_ROOM_START_INDEX = "reservations_room_start_idx";
+    public static final String RESERVATIONS_USER_START_INDEX = "reservations_user_start_idx";
+    public static final String SERIES_ROOM_UNTIL_INDEX = "reservation_series_room_until_idx";
+    public static final String SERIES_USER_INDEX = "reservation_series_user_idx";
+    public static final String SERIES_EXCEPTIONS_SERIES_INDEX = "reservation_series_exceptions_series_idx";
+
+    // colunas iniciais da chave de cada índice (o H2 não tem INCLUDE e traz as cobertas na chave)
+    private record ExpectedIndex(String table, String name, List<String> leadingColumns) {
+    }
+
+    private static final List<ExpectedIndex> EXPECTED_INDEXES = List.of(
+            new ExpectedIndex("reservations", RESERVATIONS_ROOM_START_INDEX, List.of("room_id", "start_time")),
+            new ExpectedIndex("reservations", RESERVATIONS_USER_START_INDEX, List.of("user_id", "start_time", "id")),
+            new ExpectedIndex("reservation_series", SERIES_ROOM_UNTIL_INDEX, List.of("room_id", "until_date")),
+            new ExpectedIndex("reservation_series", SERIES_USER_INDEX, List.of("user_id")),
+            new ExpectedIndex("reservation_series_exceptions", SERIES_EXCEPTIONS_SERIES_INDEX, List.of("series_id"))
+    );
+
+    // índice como o banco o descreve: tipo (DatabaseMetaData.tableIndex*) e colunas em ordem
+    private record IndexShape(short type, List<String> columns) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaVerifier.class);
+
+    private final DataSource dataSource;
+    private final boolean verifyIndexes;
+
+    // flag lida em runtime (e não @ConditionalOnProperty): no build AOT as condições ficam fixas
+    public SchemaVerifier(DataSource dataSource,
+                          @Value("${app.schema.verify-indexes:true}") boolean verifyIndexes) {
+        this.dataSource = dataSource;
+        this.verifyIndexes = verifyIndexes;
+    }
+
+    // desligada (ex.: treino do CDS, sem banco), nem a conexão dos metadados é aberta
+    @PostConstruct
+    public void verify() {
+        if (verifyIndexes) {
+            verifyIndexes();
+        }
+    }
+
+    // ordenado (não hash) e com as colunas iniciais esperadas: um índice recriado com o mesmo
+    // nome mas outro tipo ou outra ordem de colunas também falha
+    private void verifyIndexes() {
+        List<String> problems = new ArrayList<>();
+        Map<String, Map<String, IndexShape>> byTable = new HashMap<>();
+        for (ExpectedIndex expected : EXPECTED_INDEXES) {
+            Map<String, IndexShape> present = byTable.computeIfAbsent(expected.table(), table -> indexes(table));
+            IndexShape shape = present.get(expected.name());
+            String label = expected.table() + "." + expected.name();
+            if (shape == null) {
+                problems.add(label + " ausente");
+            } else if (shape.type() == DatabaseMetaData.tableIndexHashed) {
+                problems.add(label + " é hash (esperado btree)");
+            } else if (shape.columns().size() < expected.leadingColumns().size()
+                    || !shape.columns().subList(0, expected.leadingColumns().size()).equals(expected.leadingColumns())) {
+                problems.add(label + " com colunas " + shape.columns() + " (esperado " + expected.leadingColumns() + "...)");
+            }
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Índices esperados ausentes ou diferentes no schema: " + problems
+                    + "; confira as migrations em db/migration");
+        }
+        log.info("Índices do schema conferidos: {}", EXPECTED_INDEXES.size());
+    }
+
+    private Map<String, IndexShape> indexes(String table) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, metaData -> indexShapes(metaData, table));
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Falha ao ler os índices de " + table, ex);
+        }
+    }
+
+    private static Map<String, IndexShape> indexShapes(DatabaseMetaData metaData, String table) throws SQLException {
+        Map<String, Short> types = new HashMap<>();
+        Map<String, TreeMap<Short, String>> columns = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (name == null || column == null) {
+                    continue;
+                }
+                name = name.toLowerCase();
+                types.put(name, rs.getShort("TYPE"));
+                columns.computeIfAbsent(name, key -> new TreeMap<>()).put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase());
+            }
+        }
+        Map<String, IndexShape> shapes = new HashMap<>();
+        columns.forEach((name, ordered) -> shapes.put(name, new IndexShape(types.get(name), List.copyOf(ordered.values()))));
+        return shapes;
+    }
+}
@@ -0,0 +1,100 @@
+package com.reservaja.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura ({@code app.datasource.replica.enabled=true}). O primário continua
+ * configurado por {@code spring.datasource.*}; as réplicas recebem as transações
+ * {@code @Transactional(readOnly = true)} e as consultas de repositório fora de transação.
+ *
+ * Para testar localmente basta apontar {@code DB_REPLICA_URLS} para uma segunda instância
+ * com o mesmo schema (não precisa ser réplica em streaming).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private String replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${app.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    // curto: se a réplica não responde, a leitura cai logo para o primário
+    @Value("${app.datasource.replica.connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMs;
+
+    // 0 desliga a verificação de atraso de replicação
+    @Value("${app.datasource.replica.max-lag:10s}")
+    private Duration maxLag;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(DataSourceProperties properties, MeterRegistry meterRegistry) {
+        List<ReplicaHealthMonitor.Replica> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            replicas.add(new ReplicaHealthMonitor.Replica(name, replicaDataSource(name, url.trim(), properties, meterRegistry)));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.replica.enabled=true exige ao menos uma URL em app.datasource.replica.urls");
+        }
+        return new ReplicaHealthMonitor(replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthMonitor replicaHealthMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            primaryDataSource, replicaHealthMonitor, readYourWritesTracker);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource replicaDataSource(String name, String url, DataSourceProperties properties,
+                                               MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setUsername(replicaUsername);
+        dataSource.setPassword(replicaPassword);
+        dataSource.setMaximumPoolSize(replicaPoolSize);
+        dataSource.setConnectionTimeout(replicaConnectionTimeoutMs);
+        dataSource.setReadOnly(true);
+        // réplica fora do ar não impede a subida; fica fora de rotação até responder
+        dataSource.setInitializationFailTimeout(-1);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
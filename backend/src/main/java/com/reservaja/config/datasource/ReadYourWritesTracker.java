@@ -0,0 +1,50 @@
+package com.reservaja.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reservaja.service.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes: usuários que escreveram há menos de {@code app.datasource.replica.read-your-writes}
+ * leem do primário, para não verem uma réplica que ainda não recebeu a própria reserva.
+ * Janela zero desabilita.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${app.datasource.replica.read-your-writes:5s}") Duration window,
+                                 @Value("${app.datasource.replica.read-your-writes-max-users:100000}") long maxUsers) {
+        this.recentWriters = window.isZero() || window.isNegative()
+                ? null
+                : Caffeine.newBuilder()
+                        .maximumSize(maxUsers)
+                        .expireAfterWrite(window)
+                        .build();
+    }
+
+    public void markWrite(Long userId) {
+        if (recentWriters != null && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    // usa o usuário autenticado da thread atual
+    public boolean isRecentWriter() {
+        if (recentWriters == null) {
+            return false;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            return false;
+        }
+        return recentWriters.getIfPresent(principal.getId()) != null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.reservaja.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado das réplicas de leitura. Uma réplica sai de rotação quando falha ao entregar conexão
+ * ou quando o atraso de replicação passa de {@code max-lag}; a verificação periódica a devolve.
+ * Sem réplica saudável, toda leitura vai para o primário.
+ */
+public class ReplicaHealthMonitor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    // null quando o servidor não é uma réplica em streaming; zero quando já aplicou tudo o que
+    // recebeu (primário ocioso não gera replay, e o timestamp sozinho pareceria atraso)
+    private static final String LAG_QUERY = """
+        SELECT CASE WHEN NOT pg_is_in_recovery() THEN NULL
+                    WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                    ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+               END
+        """;
+
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaHealthMonitor(List<Replica> replicas, Duration maxLag) {
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    // round-robin entre as réplicas saudáveis
+    public Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public void markDown(Replica replica, Exception cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Réplica {} fora de rotação: {}", replica.name(), cause.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void check() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                Duration lag = maxLag.isZero() ? Duration.ZERO : replicationLag(connection);
+                if (!maxLag.isZero() && lag.compareTo(maxLag) > 0) {
+                    markDown(replica, new IllegalStateException("atraso de replicação " + lag.toMillis() + "ms"));
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Réplica {} de volta à rotação", replica.name());
+                }
+            } catch (SQLException ex) {
+                markDown(replica, ex);
+            }
+        }
+    }
+
+    private Duration replicationLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            if (!rs.next()) {
+                return Duration.ZERO;
+            }
+            double seconds = rs.getDouble(1);
+            return rs.wasNull() ? Duration.ZERO : Duration.ofMillis((long) (seconds * 1000));
+        }
+    }
+
+    // chamado pelo Spring ao encerrar o contexto (pools das réplicas não são beans)
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("reservaja.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 quando a réplica está recebendo leituras")
+                    .tag("replica", replica.name())
+                    .register(registry);
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.reservaja.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite forçar o primário para um trecho de código, mesmo dentro de transações
+ * read-only (ex: carga dos índices em memória, que não pode enxergar uma réplica atrasada).
+ * Sem réplicas configuradas não tem efeito.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.reservaja.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Envia transações {@code readOnly} para uma réplica saudável e todo o resto para o primário.
+ * Deve ficar atrás de um {@code LazyConnectionDataSourceProxy}, para que a conexão só seja
+ * pedida depois que a transação marcou se é somente leitura.
+ *
+ * Falha ao obter conexão da réplica tira a réplica de rotação e cai para o primário.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaHealthMonitor health;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaHealthMonitor health,
+                                    ReadYourWritesTracker readYourWrites) {
+        this.primary = primary;
+        this.health = health;
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaHealthMonitor.Replica replica : health.replicas()) {
+            targets.put(replica.name(), replica.dataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReplicaHealthMonitor.Replica replica = selectReplica();
+        return replica == null ? PRIMARY : replica.name();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaHealthMonitor.Replica replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource().getConnection();
+        } catch (SQLException ex) {
+            health.markDown(replica, ex);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // credenciais explícitas só fazem sentido para o primário
+        return primary.getConnection(username, password);
+    }
+
+    private ReplicaHealthMonitor.Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRouting.isPrimaryForced()
+                || readYourWrites.isRecentWriter()) {
+            return null;
+        }
+        return health.nextHealthy();
+    }
+}
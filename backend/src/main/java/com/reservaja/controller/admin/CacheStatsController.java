@@ -0,0 +1,70 @@
+package com.reservaja.controller.admin;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.reservaja.model.entity.Room;
+import com.reservaja.service.UserPrincipalCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+public class CacheStatsController {
+
+    private final UserPrincipalCache userCache;
+    private final Statistics hibernateStatistics;
+
+    public CacheStatsController(UserPrincipalCache userCache, EntityManagerFactory entityManagerFactory) {
+        this.userCache = userCache;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/users")
+    public ResponseEntity<Map<String, Object>> users() {
+        CacheStats stats = userCache.stats();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", userCache.byIdCache().estimatedSize());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("evictions", stats.evictionCount());
+        body.put("hitRate", stats.hitRate());
+        return ResponseEntity.ok(body);
+    }
+
+    // cache de segundo nível das salas e cache de consultas (requer hibernate.generate_statistics)
+    @GetMapping("/rooms")
+    public ResponseEntity<Map<String, Object>> rooms() {
+        CacheRegionStatistics region = hibernateStatistics.getDomainDataRegionStatistics(Room.CACHE_REGION);
+
+        Map<String, Object> entity = new LinkedHashMap<>();
+        entity.put("hits", region.getHitCount());
+        entity.put("misses", region.getMissCount());
+        entity.put("puts", region.getPutCount());
+        entity.put("hitRate", hitRate(region.getHitCount(), region.getMissCount()));
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("hits", hibernateStatistics.getQueryCacheHitCount());
+        queries.put("misses", hibernateStatistics.getQueryCacheMissCount());
+        queries.put("puts", hibernateStatistics.getQueryCachePutCount());
+        queries.put("hitRate", hitRate(hibernateStatistics.getQueryCacheHitCount(), hibernateStatistics.getQueryCacheMissCount()));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("entity", entity);
+        body.put("queries", queries);
+        return ResponseEntity.ok(body);
+    }
+
+    private static double hitRate(long hits, long misses) {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -6,6 +6,10 @@ import com.reservaja.dto.auth.RegisterRequest;
 import com.reservaja.model.entity.User;
 import com.reservaja.repository.UserRepository;
 import com.reservaja.security.JwtTokenProvider;
+import com.reservaja.security.PasswordHashingExecutor;
+import com.reservaja.service.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -23,48 +28,82 @@ public class AuthController {
     private final JwtTokenProvider tokenProvider;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final MeterRegistry meterRegistry;
 
     public AuthController(AuthenticationManager authenticationManager,
                           JwtTokenProvider tokenProvider,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          PasswordHashingExecutor hashingExecutor,
+                          MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
+        this.meterRegistry = meterRegistry;
     }
 
+    // BCrypt roda no pool dedicado; a thread do Tomcat é liberada enquanto aguarda
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-        );
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<ResponseEntity<?>> response = hashingExecutor.submit("login", () -> {
+            Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
+            );
 
-        // se chegar aqui, autenticação OK
-        String jwt = tokenProvider.generateToken(authentication.getName());
-        return ResponseEntity.ok(new AuthResponse(jwt, "Bearer"));
+            // se chegar aqui, autenticação OK
+            String jwt = tokenProvider.generateToken((UserPrincipal) authentication.getPrincipal());
+            return ResponseEntity.ok(new AuthResponse(jwt, "Bearer"));
+        });
+        return timed(response, sample, "reservaja.auth.login");
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody RegisterRequest registerRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody RegisterRequest registerRequest) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         if (userRepository.findByEmail(registerRequest.getEmail()).isPresent()) {
-            return ResponseEntity.badRequest().body("Email já está em uso.");
+            return timed(CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email já está em uso.")),
+                    sample, "reservaja.auth.register");
         }
 
         // define role parão caso nulo
         User.Role role = registerRequest.getRole() == null ? User.Role.ROLE_USER : registerRequest.getRole();
 
-        User user = User.builder()
-                .name(registerRequest.getName())
-                .email(registerRequest.getEmail())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
-                .role(role)
-                .build();
+        // BCrypt no pool de hashing; o INSERT no pool de gravação, para não prender as threads de hash
+        CompletableFuture<ResponseEntity<?>> response = hashingExecutor.submit("register", () -> passwordEncoder.encode(registerRequest.getPassword()))
+                .thenCompose(encodedPassword -> hashingExecutor.<ResponseEntity<?>>persist("register", () -> {
+                    User user = User.builder()
+                            .name(registerRequest.getName())
+                            .email(registerRequest.getEmail())
+                            .password(encodedPassword)
+                            .role(role)
+                            .build();
 
-        User saved = userRepository.save(user);
+                    User saved = userRepository.save(user);
 
-        // Retorna 201 Created com location opcional
-        URI location = URI.create(String.format("/api/users/%d", saved.getId()));
-        return ResponseEntity.created(location).build();
+                    // Retorna 201 Created com location opcional
+                    URI location = URI.create(String.format("/api/users/%d", saved.getId()));
+                    return ResponseEntity.created(location).build();
+                }));
+        return timed(response, sample, "reservaja.auth.register");
+    }
+
+    // tempo total da requisição (fila + BCrypt + banco), com o resultado como tag
+    private CompletableFuture<ResponseEntity<?>> timed(CompletableFuture<ResponseEntity<?>> response,
+                                                       Timer.Sample sample, String name) {
+        return response.whenComplete((result, ex) -> {
+            String outcome;
+            if (ex != null) {
+                outcome = "error";
+            } else if (result.getStatusCode().is2xxSuccessful()) {
+                outcome = "success";
+            } else {
+                outcome = "rejected";
+            }
+            sample.stop(Timer.builder(name).tag("outcome", outcome).register(meterRegistry));
+        });
     }
 }
@@ -0,0 +1,61 @@
+package com.reservaja.controller.reservation;
+
+import com.reservaja.dto.hold.HoldResponse;
+import com.reservaja.dto.reservation.ReservationRequest;
+import com.reservaja.dto.reservation.ReservationResponse;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.hold.Hold;
+import com.reservaja.service.hold.HoldService;
+import com.reservaja.service.reservation.BookingLanes;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/reservations/holds")
+public class HoldController {
+
+    private final HoldService holdService;
+    private final BookingLanes bookingLanes;
+
+    public HoldController(HoldService holdService, BookingLanes bookingLanes) {
+        this.holdService = holdService;
+        this.bookingLanes = bookingLanes;
+    }
+
+    // bloqueia o horário por alguns minutos; criar e confirmar rodam na raia da sala
+    @PostMapping
+    public CompletableFuture<ResponseEntity<HoldResponse>> place(@AuthenticationPrincipal UserPrincipal principal,
+                                                                 @Valid @RequestBody ReservationRequest request) {
+        return bookingLanes.runExclusive(request.getRoomId(), () -> holdService.place(principal.getId(), request))
+                .thenApply(hold -> ResponseEntity.created(URI.create(String.format("/api/reservations/holds/%s", hold.id())))
+                        .body(HoldResponse.from(hold)));
+    }
+
+    @PostMapping("/{id}/confirm")
+    public CompletableFuture<ResponseEntity<ReservationResponse>> confirm(@AuthenticationPrincipal UserPrincipal principal,
+                                                                          @PathVariable String id) {
+        Hold hold = holdService.find(id);
+        return bookingLanes.runExclusive(hold.roomId(), () -> holdService.confirm(id, principal))
+                .thenApply(saved -> {
+                    URI location = URI.create(String.format("/api/reservations/%d", saved.getId()));
+                    return ResponseEntity.created(location).body(ReservationResponse.from(saved));
+                });
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<List<HoldResponse>> listMine(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(holdService.listForUser(principal.getId()).stream().map(HoldResponse::from).toList());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@AuthenticationPrincipal UserPrincipal principal, @PathVariable String id) {
+        holdService.cancel(id, principal);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.reservaja.controller.reservation;
+
+import com.reservaja.dto.reservation.BatchReservationRequest;
+import com.reservaja.dto.reservation.ReservationPageResponse;
+import com.reservaja.dto.reservation.ReservationRequest;
+import com.reservaja.dto.reservation.ReservationResponse;
+import com.reservaja.dto.reservation.SlotAvailabilityResponse;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.reservation.BookingLanes;
+import com.reservaja.service.reservation.ReservationService;
+import com.reservaja.service.version.ResourceVersions;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+    private final BookingLanes bookingLanes;
+    private final ResourceVersions versions;
+
+    public ReservationController(ReservationService reservationService, BookingLanes bookingLanes, ResourceVersions versions) {
+        this.reservationService = reservationService;
+        this.bookingLanes = bookingLanes;
+        this.versions = versions;
+    }
+
+    // processado de forma assíncrona pela raia da sala; a thread do Tomcat é liberada enquanto aguarda
+    @PostMapping
+    public CompletableFuture<ResponseEntity<ReservationResponse>> create(@AuthenticationPrincipal UserPrincipal principal,
+                                                                         @Valid @RequestBody ReservationRequest request) {
+        return bookingLanes.submit(principal.getId(), request)
+                .thenApply(saved -> {
+                    URI location = URI.create(String.format("/api/reservations/%d", saved.getId()));
+                    return ResponseEntity.created(location).body(ReservationResponse.from(saved));
+                });
+    }
+
+    // várias salas/horários em uma transação, tudo ou nada (409 indica o item em conflito);
+    // roda com as raias de todas as salas do lote paradas
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<ReservationResponse>>> createBatch(@AuthenticationPrincipal UserPrincipal principal,
+                                                                                    @Valid @RequestBody BatchReservationRequest request) {
+        List<ReservationRequest> reservations = request.getReservations();
+        return bookingLanes.runExclusive(reservations.stream().map(ReservationRequest::getRoomId).toList(),
+                        () -> reservationService.createBatch(principal.getId(), reservations))
+                .thenApply(created -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(created.stream().map(ReservationResponse::from).toList()));
+    }
+
+    // paginação por cursor: passe o nextCursor da resposta anterior
+    @GetMapping("/me")
+    public ResponseEntity<ReservationPageResponse> listMine(@AuthenticationPrincipal UserPrincipal principal,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(reservationService.listForUser(principal.getId(), cursor, size));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        reservationService.cancel(id, principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    // "o horário está livre?" / "o que sobrepõe esta janela?"
+    @GetMapping("/rooms/{roomId}/slot")
+    public ResponseEntity<SlotAvailabilityResponse> checkSlot(@PathVariable Long roomId,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              WebRequest webRequest) {
+        String etag = versions.slotTag(roomId, from, to);
+        if (etag == null) {
+            return ResponseEntity.ok(reservationService.checkSlot(roomId, from, to));
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(reservationService.checkSlot(roomId, from, to));
+    }
+}
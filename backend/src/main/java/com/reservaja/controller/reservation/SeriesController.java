@@ -0,0 +1,68 @@
+package com.reservaja.controller.reservation;
+
+import com.reservaja.dto.series.OccurrenceResponse;
+import com.reservaja.dto.series.SeriesRequest;
+import com.reservaja.dto.series.SeriesResponse;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.reservation.BookingLanes;
+import com.reservaja.service.series.SeriesService;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/reservations/series")
+public class SeriesController {
+
+    private final SeriesService seriesService;
+    private final BookingLanes bookingLanes;
+
+    public SeriesController(SeriesService seriesService, BookingLanes bookingLanes) {
+        this.seriesService = seriesService;
+        this.bookingLanes = bookingLanes;
+    }
+
+    // na raia da sala, serializado com as reservas avulsas dela
+    @PostMapping
+    public CompletableFuture<ResponseEntity<SeriesResponse>> create(@AuthenticationPrincipal UserPrincipal principal,
+                                                                    @Valid @RequestBody SeriesRequest request) {
+        return bookingLanes.runExclusive(request.getRoomId(), () -> SeriesResponse.from(seriesService.create(principal.getId(), request)))
+                .thenApply(saved -> ResponseEntity.created(URI.create(String.format("/api/reservations/series/%d", saved.getId())))
+                        .body(saved));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<List<SeriesResponse>> listMine(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(seriesService.listForUser(principal.getId()).stream().map(SeriesResponse::from).toList());
+    }
+
+    // ocorrências expandidas só dentro da janela: da sala, se informada, ou do próprio usuário
+    @GetMapping("/occurrences")
+    public ResponseEntity<List<OccurrenceResponse>> occurrences(@AuthenticationPrincipal UserPrincipal principal,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                @RequestParam(required = false) Long roomId) {
+        return ResponseEntity.ok(seriesService.occurrences(principal.getId(), roomId, from, to));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        seriesService.cancel(id, principal);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/occurrences/{date}")
+    public ResponseEntity<SeriesResponse> skipOccurrence(@AuthenticationPrincipal UserPrincipal principal,
+                                                         @PathVariable Long id,
+                                                         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(SeriesResponse.from(seriesService.skipOccurrence(id, date, principal)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.reservaja.controller.room;
+
+import com.reservaja.dto.room.RoomRequest;
+import com.reservaja.dto.room.RoomResponse;
+import com.reservaja.model.entity.Room;
+import com.reservaja.service.room.RoomService;
+import com.reservaja.service.version.ResourceVersions;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/rooms")
+public class RoomController {
+
+    // o cliente pode guardar a resposta, mas revalida (If-None-Match) antes de reutilizar
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final RoomService roomService;
+    private final ResourceVersions versions;
+
+    public RoomController(RoomService roomService, ResourceVersions versions) {
+        this.roomService = roomService;
+        this.versions = versions;
+    }
+
+    // GETs condicionais: a ETag sai das versões em memória, então o 304 não consulta o banco;
+    // sem tag (antes da carga das versões) a resposta é sempre completa
+    @GetMapping
+    public ResponseEntity<List<RoomResponse>> list(WebRequest webRequest) {
+        String etag = versions.roomsTag();
+        if (etag == null) {
+            return ResponseEntity.ok(roomService.findAll().stream().map(RoomResponse::from).toList());
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(roomService.findAll().stream().map(RoomResponse::from).toList());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RoomResponse> get(@PathVariable Long id, WebRequest webRequest) {
+        String etag = versions.roomTag(id);
+        if (etag == null) {
+            return ResponseEntity.ok(RoomResponse.from(roomService.findById(id)));
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(RoomResponse.from(roomService.findById(id)));
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<List<RoomResponse>> available(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(required = false) Integer minCapacity,
+                                                        WebRequest webRequest) {
+        // a capacidade mínima só filtra o catálogo, que já entra na tag
+        String etag = versions.availabilityTag(from, to);
+        if (etag == null) {
+            return ResponseEntity.ok(roomService.findAvailable(from, to, minCapacity).stream().map(RoomResponse::from).toList());
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(roomService.findAvailable(from, to, minCapacity).stream().map(RoomResponse::from).toList());
+    }
+
+    // POST/PUT/DELETE restritos a ADMIN no SecurityConfig
+    @PostMapping
+    public ResponseEntity<RoomResponse> create(@Valid @RequestBody RoomRequest request) {
+        Room saved = roomService.create(request);
+
+        URI location = URI.create(String.format("/api/rooms/%d", saved.getId()));
+        return ResponseEntity.created(location).body(RoomResponse.from(saved));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<RoomResponse> update(@PathVariable Long id, @Valid @RequestBody RoomRequest request) {
+        return ResponseEntity.ok(RoomResponse.from(roomService.update(id, request)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id) {
+        roomService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.reservaja.dto.hold;
+
+import com.reservaja.service.hold.Hold;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class HoldResponse {
+    private String id;
+    private Long roomId;
+    private Long userId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Instant expiresAt;
+
+    public static HoldResponse from(Hold hold) {
+        return new HoldResponse(
+            hold.id(),
+            hold.roomId(),
+            hold.userId(),
+            hold.startTime(),
+            hold.endTime(),
+            hold.expiresAt()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package com.reservaja.dto.reservation;
+
+import com.reservaja.service.reservation.ReservationService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchReservationRequest {
+
+    @NotEmpty(message = "At least one reservation is required")
+    @Size(max = ReservationService.MAX_BATCH_SIZE, message = "Too many reservations in one batch")
+    private List<@Valid @NotNull ReservationRequest> reservations;
+}
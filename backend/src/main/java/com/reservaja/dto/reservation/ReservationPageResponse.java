@@ -0,0 +1,15 @@
+package com.reservaja.dto.reservation;
+
+import com.reservaja.repository.projection.ReservationSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReservationPageResponse {
+    private List<ReservationSummary> items;
+    // null quando não há próxima página
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.reservaja.dto.reservation;
+
+import com.reservaja.model.entity.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ReservationResponse {
+    private Long id;
+    private Long roomId;
+    private Long userId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    public static ReservationResponse from(Reservation reservation) {
+        return new ReservationResponse(
+            reservation.getId(),
+            reservation.getRoom().getId(),
+            reservation.getUser().getId(),
+            reservation.getStartTime(),
+            reservation.getEndTime()
+        );
+    }
+}
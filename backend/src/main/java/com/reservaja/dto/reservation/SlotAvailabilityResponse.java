@@ -0,0 +1,22 @@
+package com.reservaja.dto.reservation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SlotAvailabilityResponse {
+    private Long roomId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean free;
+    // ids das reservas que sobrepõem a janela
+    private List<Long> overlappingReservationIds;
+    // ids das séries recorrentes com alguma ocorrência na janela
+    private List<Long> overlappingSeriesIds;
+    // ids dos bloqueios provisórios que sobrepõem a janela
+    private List<String> overlappingHoldIds;
+}
@@ -0,0 +1,18 @@
+package com.reservaja.dto.room;
+
+import com.reservaja.model.entity.Room;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RoomResponse {
+    private Long id;
+    private String name;
+    private Integer capacity;
+    private String description;
+
+    public static RoomResponse from(Room room) {
+        return new RoomResponse(room.getId(), room.getName(), room.getCapacity(), room.getDescription());
+    }
+}
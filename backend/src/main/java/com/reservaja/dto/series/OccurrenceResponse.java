@@ -0,0 +1,16 @@
+package com.reservaja.dto.series;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class OccurrenceResponse {
+    private Long seriesId;
+    private Long roomId;
+    private Long userId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
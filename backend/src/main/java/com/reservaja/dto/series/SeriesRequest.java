@@ -0,0 +1,38 @@
+package com.reservaja.dto.series;
+
+import com.reservaja.model.entity.ReservationSeries;
+import com.reservaja.service.series.SeriesService;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class SeriesRequest {
+
+    @NotNull(message = "Room is required")
+    private Long roomId;
+
+    @NotNull(message = "Frequency is required")
+    private ReservationSeries.Frequency frequency;
+
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = SeriesService.MAX_INTERVAL, message = "Interval is too large")
+    private int interval = 1;
+
+    @NotNull(message = "First start time is required")
+    @Future(message = "First start time must be in the future")
+    private LocalDateTime firstStart;
+
+    @NotNull(message = "Duration is required")
+    @Min(value = 1, message = "Duration must be at least 1 minute")
+    @Max(value = SeriesService.MAX_DURATION_MINUTES, message = "Duration cannot exceed 24 hours")
+    private Integer durationMinutes;
+
+    @NotNull(message = "End date is required")
+    private LocalDate until;
+}
@@ -0,0 +1,38 @@
+package com.reservaja.dto.series;
+
+import com.reservaja.model.entity.ReservationSeries;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SeriesResponse {
+    private Long id;
+    private Long roomId;
+    private Long userId;
+    private ReservationSeries.Frequency frequency;
+    private Integer interval;
+    private LocalDateTime firstStart;
+    private Integer durationMinutes;
+    private LocalDate until;
+    // ocorrências canceladas
+    private List<LocalDate> exceptions;
+
+    public static SeriesResponse from(ReservationSeries series) {
+        return new SeriesResponse(
+            series.getId(),
+            series.getRoom().getId(),
+            series.getUser().getId(),
+            series.getFrequency(),
+            series.getInterval(),
+            series.getFirstStart(),
+            series.getDurationMinutes(),
+            series.getUntil(),
+            series.getExceptions().stream().sorted().toList()
+        );
+    }
+}
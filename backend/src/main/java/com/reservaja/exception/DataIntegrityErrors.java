@@ -0,0 +1,33 @@
+package com.reservaja.exception;
+
+import java.sql.SQLException;
+
+// utilitário para identificar violações de constraint pelo SQLState do PostgreSQL
+public final class DataIntegrityErrors {
+
+    public static final String UNIQUE_VIOLATION = "23505";
+    public static final String FOREIGN_KEY_VIOLATION = "23503";
+    public static final String EXCLUSION_VIOLATION = "23P01";
+    // levantado pelo trigger reservations_series_version_check (migration V6)
+    public static final String STALE_SERIES_VERSION = "23R01";
+
+    private DataIntegrityErrors() {
+    }
+
+    public static String sqlState(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    public static boolean isOverlapViolation(Throwable ex) {
+        return EXCLUSION_VIOLATION.equals(sqlState(ex));
+    }
+
+    public static boolean isStaleSeriesVersion(Throwable ex) {
+        return STALE_SERIES_VERSION.equals(sqlState(ex));
+    }
+}
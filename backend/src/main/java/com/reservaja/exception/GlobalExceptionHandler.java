@@ -1,6 +1,8 @@
 package com.reservaja.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -20,13 +22,25 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // conta cada resposta de erro pelo handler que a produziu
+    private ResponseEntity<ApiError> respond(String branch, ApiError error, HttpStatus status) {
+        meterRegistry.counter("reservaja.api.errors", "branch", branch, "status", String.valueOf(status.value())).increment();
+        return new ResponseEntity<>(error, status);
+    }
+
     // 400 - Bad Request: payload inválido / JSON inválido
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleHttpMessageNotReadable(HttpMessageNotReadableException ex,
                                                                  HttpServletRequest request) {
         String msg = "Request body inválido: " + ex.getMostSpecificCause().getMessage();
         ApiError error = new ApiError(HttpStatus.BAD_REQUEST, msg, request.getRequestURI(), null);
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        return respond("unreadable_body", error, HttpStatus.BAD_REQUEST);
     }
 
     // 400 - validação de @Valid
@@ -46,7 +60,7 @@ public class GlobalExceptionHandler {
             errors
         );
 
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        return respond("validation", error, HttpStatus.BAD_REQUEST);
     }
 
     // 400 - mismatched method arg types (ex: enum inválido, número em string)
@@ -58,7 +72,7 @@ public class GlobalExceptionHandler {
 
         ApiError error = new ApiError(HttpStatus.BAD_REQUEST, message, request.getRequestURI(), null);
 
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        return respond("type_mismatch", error, HttpStatus.BAD_REQUEST);
     }
 
     // 401 Authentication errors
@@ -66,35 +80,58 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ApiError>handleAuthentication(Exception ex, HttpServletRequest request) {
         String message = ex.getMessage() == null ? "Não autorizado" : ex.getMessage();
         ApiError error = new ApiError(HttpStatus.UNAUTHORIZED, message, request.getRequestURI(), null);
-        return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+        return respond("authentication", error, HttpStatus.UNAUTHORIZED);
     }
 
     // 403 - Access denied
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex, HttpServletRequest request) {
         ApiError error = new ApiError(HttpStatus.FORBIDDEN, "Acesso negado", request.getRequestURI(), List.of(ex.getMessage()));
-        return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
+        return respond("access_denied", error, HttpStatus.FORBIDDEN);
     }
 
     // 404 - Resource not found
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
         ApiError error = new ApiError(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI(), null);
-        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+        return respond("not_found", error, HttpStatus.NOT_FOUND);
     }
 
     // 409 - Conflict (ex: tentativa de criar um recurso duplicado, ou sobreposição de reserva)
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ApiError> handleConflict(ConflictException ex, HttpServletRequest request) {
         ApiError error = new ApiError(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI(), null);
-        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+        return respond("conflict", error, HttpStatus.CONFLICT);
+    }
+
+    // 409 - violação de constraint no banco (sobreposição de reserva, registro duplicado)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest request) {
+        String sqlState = DataIntegrityErrors.sqlState(ex);
+        String message;
+        if (DataIntegrityErrors.EXCLUSION_VIOLATION.equals(sqlState)) {
+            message = "Sala já reservada neste horário";
+        } else if (DataIntegrityErrors.UNIQUE_VIOLATION.equals(sqlState)) {
+            message = "Registro duplicado";
+        } else {
+            message = "Violação de integridade dos dados";
+        }
+        ApiError error = new ApiError(HttpStatus.CONFLICT, message, request.getRequestURI(), null);
+        return respond("data_integrity", error, HttpStatus.CONFLICT);
     }
 
     // 400 - BadRequestException (custom)
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiError> handleBadRequest(BadRequestException ex, HttpServletRequest request) {
         ApiError error = new ApiError(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI(), null);
-        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+        return respond("bad_request", error, HttpStatus.BAD_REQUEST);
+    }
+
+    // 503 - ServiceUnavailableException (filas internas saturadas)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailable(ServiceUnavailableException ex, HttpServletRequest request) {
+        ApiError error = new ApiError(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI(), null);
+        return respond("service_unavailable", error, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
     // Cuidado: capturar Exception por último (fallback)
@@ -106,6 +143,6 @@ public class GlobalExceptionHandler {
                                       "Erro interno no servidor",
                                       request.getRequestURI(),
                                       List.of(ex.getMessage()));
-        return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
+        return respond("unexpected", error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 }
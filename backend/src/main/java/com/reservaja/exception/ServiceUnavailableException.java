@@ -0,0 +1,5 @@
+package com.reservaja.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) { super(message); }
+}
@@ -3,26 +3,46 @@ package com.reservaja.model.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"room_id", "start_time", "end_time"}))
+// sobreposição impedida pela exclusion constraint das migrations (db/migration/postgresql);
+// no PostgreSQL a tabela é particionada por mês de start_time (ver ReservationPartitioning)
+@Table(name = "reservations")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Reservation {
+
+    // ids reservados em blocos (otimizador pooled): sem ida ao banco por INSERT, o Hibernate
+    // pode agrupar os INSERTs em lote, o que IDENTITY impede
+    public static final String ID_SEQUENCE = "reservations_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // duração máxima de uma reserva: uma reserva que termina depois de T começou depois de
+    // T - MAX_DURATION, o que permite às consultas por janela podar as partições mensais.
+    // O trigger reservations_boundary_guard (migration V4) repete o limite no banco
+    public static final int MAX_DURATION_MINUTES = 24 * 60;
+    public static final Duration MAX_DURATION = Duration.ofMinutes(MAX_DURATION_MINUTES);
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @ManyToOne(optional = false)
+    // LAZY: listagens usam projeções e não precisam carregar usuário/sala
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Room room;
 
     @Column(name = "start_time", nullable = false)
@@ -30,4 +50,9 @@ public class Reservation {
 
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
+
+    // versão das séries da sala vista na checagem, conferida pelo trigger da migration V6 no
+    // INSERT e não gravada (lida de volta, vem nula)
+    @Column(name = "series_version", updatable = false)
+    private Long seriesVersion;
 }
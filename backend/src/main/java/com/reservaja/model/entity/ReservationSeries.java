@@ -0,0 +1,71 @@
+package com.reservaja.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reserva recorrente: guarda só a regra (frequência, intervalo, primeira ocorrência, duração,
+ * data final e datas canceladas). As ocorrências são calculadas sob demanda, apenas dentro da
+ * janela consultada (ver {@code Recurrence}), e nunca viram linhas em {@code reservations}.
+ */
+@Entity
+@Table(name = "reservation_series")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationSeries {
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        // mesmo dia do mês da primeira ocorrência; meses sem esse dia são pulados
+        MONTHLY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "room_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Room room;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Frequency frequency;
+
+    // a cada N dias/semanas/meses ("interval" é palavra reservada no PostgreSQL)
+    @Column(name = "repeat_interval", nullable = false)
+    private Integer interval;
+
+    @Column(name = "first_start", nullable = false)
+    private LocalDateTime firstStart;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private Integer durationMinutes;
+
+    // última data em que uma ocorrência pode começar (inclusiva)
+    @Column(name = "until_date", nullable = false)
+    private LocalDate until;
+
+    // datas de ocorrências canceladas individualmente
+    @ElementCollection
+    @CollectionTable(name = "reservation_series_exceptions", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "occurrence_date", nullable = false)
+    @Builder.Default
+    private Set<LocalDate> exceptions = new HashSet<>();
+}
@@ -0,0 +1,29 @@
+package com.reservaja.model.listener;
+
+import com.reservaja.model.entity.User;
+import com.reservaja.service.UserChangedEvent;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// instanciado pelo Spring (SpringBeanContainer do Hibernate), por isso pode receber dependências
+@Component
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    public void afterUpdate(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED, user.getId(), user.getEmail()));
+    }
+
+    @PostRemove
+    public void afterRemove(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.DELETED, user.getId(), user.getEmail()));
+    }
+}
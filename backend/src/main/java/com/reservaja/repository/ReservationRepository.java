@@ -3,16 +3,58 @@ package com.reservaja.repository;
 import com.reservaja.model.entity.Reservation;
 import com.reservaja.model.entity.Room;
 import com.reservaja.model.entity.User;
+import com.reservaja.repository.projection.ReservationSlot;
+import com.reservaja.repository.projection.ReservationSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationRepositoryCustom {
     
     List<Reservation> findByUser(User user);
 
-    List<Reservation> findByRoomAndStartTimeLessThanAndEndTimeGreaterThan(
-        Room room, LocalDateTime endTime, LocalDateTime startTime 
-    );
+    // "startTime > earliestStart" é redundante para o resultado, mas deixa o PostgreSQL podar
+    // as partições mensais anteriores à janela
+    @Query("select r from Reservation r " +
+           "where r.room = :room and r.startTime < :to and r.endTime > :from and r.startTime > :earliestStart")
+    List<Reservation> findOverlapping(@Param("room") Room room,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("earliestStart") LocalDateTime earliestStart);
+
+    // reservas da sala sobrepondo [from, to)
+    default List<Reservation> findOverlapping(Room room, LocalDateTime from, LocalDateTime to) {
+        return findOverlapping(room, from, to, from.minus(Reservation.MAX_DURATION));
+    }
+
+    // paginação por keyset em (start_time, id): custo constante por página, independente da profundidade
+    @Query("select new com.reservaja.repository.projection.ReservationSummary(r.id, room.id, room.name, r.startTime, r.endTime) " +
+           "from Reservation r join r.room room " +
+           "where r.user.id = :userId " +
+           "order by r.startTime, r.id")
+    List<ReservationSummary> findPageByUser(@Param("userId") Long userId, Limit limit);
+
+    @Query("select new com.reservaja.repository.projection.ReservationSummary(r.id, room.id, room.name, r.startTime, r.endTime) " +
+           "from Reservation r join r.room room " +
+           "where r.user.id = :userId " +
+           "and (r.startTime > :afterStart or (r.startTime = :afterStart and r.id > :afterId)) " +
+           "order by r.startTime, r.id")
+    List<ReservationSummary> findPageByUserAfter(@Param("userId") Long userId,
+                                                 @Param("afterStart") LocalDateTime afterStart,
+                                                 @Param("afterId") Long afterId,
+                                                 Limit limit);
+
+    @Query("select r.id as id, r.room.id as roomId, r.startTime as startTime, r.endTime as endTime " +
+           "from Reservation r where r.endTime > :since and r.startTime > :earliestStart")
+    List<ReservationSlot> findSlotsEndingAfter(@Param("since") LocalDateTime since,
+                                               @Param("earliestStart") LocalDateTime earliestStart);
+
+    // só as partições a partir do mês de "since" (menos a duração máxima) são lidas
+    default List<ReservationSlot> findSlotsEndingAfter(LocalDateTime since) {
+        return findSlotsEndingAfter(since, since.minus(Reservation.MAX_DURATION));
+    }
 }
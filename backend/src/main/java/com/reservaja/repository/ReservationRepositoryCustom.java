@@ -0,0 +1,15 @@
+package com.reservaja.repository;
+
+import com.reservaja.model.entity.Reservation;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReservationRepositoryCustom {
+
+    /**
+     * Reservas gravadas que sobrepõem a janela (sala, início, fim) de qualquer um dos candidatos,
+     * em um único SELECT com uma condição por candidato.
+     */
+    List<Reservation> findOverlappingAny(Collection<Reservation> candidates);
+}
@@ -0,0 +1,42 @@
+package com.reservaja.repository;
+
+import com.reservaja.model.entity.Reservation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+class ReservationRepositoryImpl implements ReservationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Reservation> findOverlappingAny(Collection<Reservation> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        StringJoiner conditions = new StringJoiner(" or ");
+        for (int i = 0; i < candidates.size(); i++) {
+            conditions.add("(r.room.id = :room" + i + " and r.startTime < :end" + i + " and r.endTime > :start" + i
+                    + " and r.startTime > :earliest" + i + ")");
+        }
+
+        TypedQuery<Reservation> query = entityManager.createQuery(
+                "select r from Reservation r where " + conditions, Reservation.class);
+        int i = 0;
+        for (Reservation candidate : candidates) {
+            query.setParameter("room" + i, candidate.getRoom().getId());
+            query.setParameter("start" + i, candidate.getStartTime());
+            query.setParameter("end" + i, candidate.getEndTime());
+            // poda das partições mensais: nenhuma reserva dura mais que MAX_DURATION
+            query.setParameter("earliest" + i, candidate.getStartTime().minus(Reservation.MAX_DURATION));
+            i++;
+        }
+        return query.getResultList();
+    }
+}
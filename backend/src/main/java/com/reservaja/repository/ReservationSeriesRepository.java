@@ -0,0 +1,36 @@
+package com.reservaja.repository;
+
+import com.reservaja.model.entity.ReservationSeries;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReservationSeriesRepository extends JpaRepository<ReservationSeries, Long> {
+
+    // exceções na mesma consulta: o índice de séries monta a regra completa de uma vez
+    @EntityGraph(attributePaths = "exceptions")
+    @Query("select s from ReservationSeries s where s.id = :id")
+    Optional<ReservationSeries> findWithExceptionsById(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = "exceptions")
+    @Query("select s from ReservationSeries s where s.until >= :since")
+    List<ReservationSeries> findActiveSince(@Param("since") LocalDate since);
+
+    @EntityGraph(attributePaths = "exceptions")
+    @Query("select s from ReservationSeries s where s.room.id = :roomId and s.until >= :since")
+    List<ReservationSeries> findActiveByRoomSince(@Param("roomId") Long roomId, @Param("since") LocalDate since);
+
+    @EntityGraph(attributePaths = "exceptions")
+    @Query("select s from ReservationSeries s where s.room.id in :roomIds and s.until >= :since")
+    List<ReservationSeries> findActiveByRoomsSince(@Param("roomIds") Collection<Long> roomIds, @Param("since") LocalDate since);
+
+    @EntityGraph(attributePaths = "exceptions")
+    @Query("select s from ReservationSeries s where s.user.id = :userId order by s.firstStart, s.id")
+    List<ReservationSeries> findByUserId(@Param("userId") Long userId);
+}
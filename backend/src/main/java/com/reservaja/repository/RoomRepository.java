@@ -1,7 +1,50 @@
 package com.reservaja.repository;
 
 import com.reservaja.model.entity.Room;
+import com.reservaja.repository.projection.RoomDetails;
+import com.reservaja.repository.projection.RoomSeriesVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface RoomRepository extends JpaRepository<Room, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomRepository extends JpaRepository<Room, Long>, RoomRepositoryCustom {
+
+    // listagem completa fica no cache de consultas até a próxima escrita em rooms
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll();
+
+    // FOR UPDATE, e não FOR NO KEY UPDATE (PESSIMISTIC_WRITE): só ele conflita com o FOR KEY SHARE
+    // do trigger de reservations (migration V6), então os INSERTs da sala esperam a série
+    @Query(value = "select series_version from rooms where id = :id for update", nativeQuery = true)
+    Optional<Long> lockSeriesVersion(@Param("id") Long id);
+
+    // series_version não está em Room: sem o query space (tabela sem cache) o Hibernate
+    // esvaziaria todas as regiões do cache de segundo nível a cada UPDATE nativo
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reservation_series"))
+    @Query(value = "update rooms set series_version = series_version + 1 where id = :id", nativeQuery = true)
+    void incrementSeriesVersion(@Param("id") Long id);
+
+    @Query(value = "select id as \"id\", series_version as \"seriesVersion\" from rooms where id in :ids", nativeQuery = true)
+    List<RoomSeriesVersion> findSeriesVersions(@Param("ids") Collection<Long> ids);
+
+    // salas que já tiveram séries; as demais estão na versão 0
+    @Query(value = "select id as \"id\", series_version as \"seriesVersion\" from rooms where series_version > 0", nativeQuery = true)
+    List<RoomSeriesVersion> findChangedSeriesVersions();
+
+    // versões das ETags (ResourceVersions): direto da tabela, e não do cache que pode estar sendo invalidado
+    @Query(value = "select id as \"id\", name as \"name\", capacity as \"capacity\", description as \"description\" from rooms", nativeQuery = true)
+    List<RoomDetails> findAllDetails();
+
+    @Query(value = "select id as \"id\", name as \"name\", capacity as \"capacity\", description as \"description\" from rooms where id = :id", nativeQuery = true)
+    Optional<RoomDetails> findDetailsById(@Param("id") Long id);
 }
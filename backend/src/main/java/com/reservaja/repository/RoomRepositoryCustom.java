@@ -0,0 +1,16 @@
+package com.reservaja.repository;
+
+import com.reservaja.model.entity.Room;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RoomRepositoryCustom {
+
+    /**
+     * Carrega as salas pelos ids consultando antes o cache de segundo nível;
+     * só os ids ausentes do cache vão ao banco, em um único SELECT ... IN.
+     * Ids inexistentes são omitidos.
+     */
+    List<Room> findAllByIdCached(Collection<Long> ids);
+}
@@ -0,0 +1,25 @@
+package com.reservaja.repository;
+
+import com.reservaja.model.entity.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+class RoomRepositoryImpl implements RoomRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Room> findAllByIdCached(Collection<Long> ids) {
+        List<Room> rooms = entityManager.unwrap(Session.class)
+                .byMultipleIds(Room.class)
+                .multiLoad(new ArrayList<>(ids));
+        return rooms.stream().filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,11 @@
+package com.reservaja.repository.projection;
+
+import java.time.LocalDateTime;
+
+// projeção enxuta usada para carregar o índice de calendário sem materializar entidades
+public interface ReservationSlot {
+    Long getId();
+    Long getRoomId();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,11 @@
+package com.reservaja.repository.projection;
+
+import java.time.LocalDateTime;
+
+// linha plana da listagem de reservas (sem entidades, sem coleções)
+public record ReservationSummary(Long id,
+                                 Long roomId,
+                                 String roomName,
+                                 LocalDateTime startTime,
+                                 LocalDateTime endTime) {
+}
@@ -0,0 +1,9 @@
+package com.reservaja.repository.projection;
+
+// campos de uma sala que aparecem nas respostas, lidos fora do cache de segundo nível
+public interface RoomDetails {
+    Long getId();
+    String getName();
+    Integer getCapacity();
+    String getDescription();
+}
@@ -0,0 +1,7 @@
+package com.reservaja.repository.projection;
+
+// rooms.series_version por sala, lido fora do cache de segundo nível (a coluna não é mapeada em Room)
+public interface RoomSeriesVersion {
+    Long getId();
+    Long getSeriesVersion();
+}
@@ -0,0 +1,153 @@
+package com.reservaja.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limites de admissão aplicados pelo {@link AdmissionControlFilter}:
+ * <ul>
+ *   <li>taxa por cliente (token bucket), com orçamentos separados para autenticação (por IP)
+ *       e reservas (por usuário e por IP);</li>
+ *   <li>concorrência global das requisições /api, com fila de espera limitada.</li>
+ * </ul>
+ * Os baldes ficam em um cache Caffeine limitado (mapa concorrente, sem lock global) e cada
+ * balde é atualizado por CAS; a concorrência usa um {@link Semaphore} não justo.
+ */
+@Component
+public class AdmissionControl {
+
+    public enum Route {
+        AUTH,
+        BOOKING,
+        OTHER
+    }
+
+    private record Budget(String name, double rate, int burst) {
+    }
+
+    private final boolean enabled;
+    private final Budget authPerIp;
+    private final Budget bookingPerUser;
+    private final Budget bookingPerIp;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int queueCapacity;
+    private final long queueTimeoutMs;
+
+    public AdmissionControl(@Value("${app.admission.enabled:true}") boolean enabled,
+                            @Value("${app.admission.auth.per-ip.rate:5}") double authIpRate,
+                            @Value("${app.admission.auth.per-ip.burst:20}") int authIpBurst,
+                            @Value("${app.admission.booking.per-user.rate:10}") double bookingUserRate,
+                            @Value("${app.admission.booking.per-user.burst:20}") int bookingUserBurst,
+                            @Value("${app.admission.booking.per-ip.rate:50}") double bookingIpRate,
+                            @Value("${app.admission.booking.per-ip.burst:100}") int bookingIpBurst,
+                            @Value("${app.admission.max-concurrent:256}") int maxConcurrent,
+                            @Value("${app.admission.queue-capacity:128}") int queueCapacity,
+                            @Value("${app.admission.queue-timeout-ms:100}") long queueTimeoutMs,
+                            @Value("${app.admission.max-tracked-clients:100000}") long maxTrackedClients,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.authPerIp = new Budget("auth-ip", authIpRate, authIpBurst);
+        this.bookingPerUser = new Budget("booking-user", bookingUserRate, bookingUserBurst);
+        this.bookingPerIp = new Budget("booking-ip", bookingIpRate, bookingIpBurst);
+        // balde ocioso pelo tempo de reposição completa já estaria cheio: pode ser descartado
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedClients)
+                .expireAfterAccess(refillTime(authPerIp, bookingPerUser, bookingPerIp))
+                .build();
+        this.permits = new Semaphore(maxConcurrent);
+        this.queueCapacity = queueCapacity;
+        this.queueTimeoutMs = queueTimeoutMs;
+
+        Gauge.builder("reservaja.admission.in-flight", () -> maxConcurrent - permits.availablePermits())
+                .description("Requisições /api em andamento")
+                .register(meterRegistry);
+        Gauge.builder("reservaja.admission.waiting", waiting, AtomicInteger::get)
+                .description("Requisições aguardando vaga de concorrência")
+                .register(meterRegistry);
+    }
+
+    private static Duration refillTime(Budget... budgets) {
+        double seconds = 1;
+        for (Budget budget : budgets) {
+            seconds = Math.max(seconds, budget.burst() / budget.rate());
+        }
+        return Duration.ofMillis((long) Math.ceil(seconds * 1000));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consome uma ficha de cada orçamento aplicável à rota, só se todos aceitarem: a ficha do
+     * usuário volta quando o IP recusa (ex.: vários clientes atrás do mesmo NAT).
+     * Devolve 0 se aceito, ou nanossegundos até poder tentar de novo.
+     */
+    public long checkRate(Route route, String clientIp, Long userId) {
+        long now = System.nanoTime();
+        return switch (route) {
+            case AUTH -> acquire(authPerIp, clientIp, now);
+            case BOOKING -> {
+                TokenBucket user = userId == null ? null : bucket(bookingPerUser, userId.toString(), now);
+                long wait = user == null ? 0 : user.tryAcquire(now);
+                if (wait > 0) {
+                    yield wait;
+                }
+                wait = acquire(bookingPerIp, clientIp, now);
+                if (wait > 0 && user != null) {
+                    user.refund();
+                }
+                yield wait;
+            }
+            case OTHER -> 0;
+        };
+    }
+
+    private long acquire(Budget budget, String client, long now) {
+        return bucket(budget, client, now).tryAcquire(now);
+    }
+
+    private TokenBucket bucket(Budget budget, String client, long now) {
+        return buckets.get(budget.name() + ':' + client,
+                key -> new TokenBucket(budget.rate(), budget.burst(), now));
+    }
+
+    /**
+     * Reserva uma vaga de concorrência, esperando no máximo {@code queue-timeout-ms} se a fila
+     * ainda tiver espaço. Com a fila cheia recusa na hora.
+     */
+    public boolean tryEnter() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+}
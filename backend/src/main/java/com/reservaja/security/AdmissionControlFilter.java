@@ -0,0 +1,152 @@
+package com.reservaja.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservaja.exception.ApiError;
+import com.reservaja.service.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controle de admissão das requisições /api, depois da autenticação por JWT (para conhecer o usuário):
+ * excesso de taxa responde 429 com Retry-After; sem vaga de concorrência, 503. O limite por IP usa o
+ * IP real do cliente, resolvido pelo Tomcat a partir do X-Forwarded-For dos proxies confiáveis.
+ *
+ * Não é registrado como bean para não entrar também na cadeia de filtros do servlet,
+ * onde rodaria antes da autenticação.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admission;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(AdmissionControl admission, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.admission = admission;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !admission.isEnabled() || !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        AdmissionControl.Route route = route(request);
+
+        long waitNanos = admission.checkRate(route, clientIp(request), currentUserId());
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            reject(request, response, route, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Muitas requisições, tente novamente mais tarde");
+            return;
+        }
+
+        if (!admission.tryEnter()) {
+            reject(request, response, route, HttpStatus.SERVICE_UNAVAILABLE, 1, "Servidor sobrecarregado, tente novamente");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // respostas assíncronas (CompletableFuture) só liberam a vaga ao terminar
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(released));
+            } else {
+                release(released);
+            }
+        }
+    }
+
+    private static AdmissionControl.Route route(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (path.startsWith("/api/auth/")) {
+            return AdmissionControl.Route.AUTH;
+        }
+        if (path.startsWith("/api/reservations") && HttpMethod.POST.matches(request.getMethod())) {
+            return AdmissionControl.Route.BOOKING;
+        }
+        return AdmissionControl.Route.OTHER;
+    }
+
+    // atrás do balanceador, o endereço da conexão é o do proxy, o mesmo para todos os clientes; com
+    // server.forward-headers-strategy=native o Tomcat já o trocou pelo X-Forwarded-For vindo de proxy confiável
+    private static String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdmissionControl.Route route,
+                        HttpStatus status, long retryAfterSeconds, String message) throws IOException {
+        meterRegistry.counter("reservaja.admission.rejected",
+                "route", route.name().toLowerCase(), "status", String.valueOf(status.value())).increment();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(status, message, request.getRequestURI(), null));
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            admission.exit();
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean released;
+
+        ReleaseOnComplete(AtomicBoolean released) {
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // novo ciclo assíncrono no mesmo pedido: continua aguardando o onComplete
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
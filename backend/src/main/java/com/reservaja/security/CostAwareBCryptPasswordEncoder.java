@@ -0,0 +1,31 @@
+package com.reservaja.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt com custo configurável que pede rehash sempre que o custo do hash armazenado
+ * for diferente do configurado (o {@link BCryptPasswordEncoder} padrão só sobe o custo).
+ * O rehash acontece no login, via {@code UserDetailsPasswordService}.
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // formato: $2a$10$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.reservaja.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,19 +22,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    // true: confia nas claims do token; false: sempre recarrega o usuário do banco
+    private final boolean stateless;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService) {
+    // tempo de verificação do token e de montagem do usuário (pelas claims ou pelo banco)
+    private final Timer verifyTimer;
+    private final Timer claimsLookupTimer;
+    private final Timer databaseLookupTimer;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService,
+                                   boolean stateless, MeterRegistry meterRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.stateless = stateless;
+        this.verifyTimer = Timer.builder("reservaja.auth.jwt.verify")
+                .description("Verificação do JWT (assinatura, expiração, cache)")
+                .register(meterRegistry);
+        this.claimsLookupTimer = userLookupTimer(meterRegistry, "claims");
+        this.databaseLookupTimer = userLookupTimer(meterRegistry, "database");
+    }
+
+    private static Timer userLookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("reservaja.auth.user.lookup")
+                .description("Montagem do usuário autenticado a partir do token")
+                .tag("source", source)
+                .register(meterRegistry);
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
         String jwt = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            String username = tokenProvider.getUsernameFromJWT(jwt);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        Claims claims = StringUtils.hasText(jwt) ? verifyTimer.record(() -> tokenProvider.verify(jwt)) : null;
+
+        if (claims != null) {
+            UserDetails userDetails = stateless ? claimsLookupTimer.record(() -> tokenProvider.getPrincipal(claims)) : null;
+
+            // modo com banco, ou token antigo sem as claims de usuário
+            if (userDetails == null) {
+                userDetails = databaseLookupTimer.record(() -> userDetailsService.loadUserByUsername(claims.getSubject()));
+            }
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                 userDetails,
@@ -1,61 +1,157 @@
 package com.reservaja.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.reservaja.service.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class JwtTokenProvider {
-    
+public class JwtTokenProvider implements MeterBinder {
+
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_NAME = "name";
+    private static final String CLAIM_ROLE = "role";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
+    // 0 desabilita o cache de tokens verificados
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${app.jwt.cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
     private Key key;
 
+    // parser é imutável e thread-safe: construído uma vez e reutilizado
+    private JwtParser parser;
+
+    // tokens já verificados, indexados pelo SHA-256 do token; nunca sobrevivem à expiração do token
+    private Cache<String, Claims> verifiedTokens;
+
     @PostConstruct
     public void init() {
         // Criar key a partir do secret
         key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+
+        if (cacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfter(new TokenExpiry(TimeUnit.MILLISECONDS.toNanos(cacheTtlMs)))
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    // acertos/falhas/despejos do cache de tokens verificados
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (verifiedTokens != null) {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
+        }
     }
 
-    public String generateToken(String username) {
+    public String generateToken(UserPrincipal principal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
+        String role = principal.getAuthorities().stream()
+                .findFirst()
+                .map(GrantedAuthority::getAuthority)
+                .orElse(null);
+
+        // id, nome e role embutidos para o filtro montar o UserPrincipal sem consultar o banco
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_NAME, principal.getName())
+                .claim(CLAIM_ROLE, role)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica assinatura e expiração e devolve as claims em um único parse.
+     * Retorna null se o token for inválido.
+     */
+    public Claims verify(String authToken) {
+        if (verifiedTokens == null) {
+            return parse(authToken);
+        }
+
+        String cacheKey = hash(authToken);
+        Claims cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parse(authToken);
+        if (claims != null) {
+            verifiedTokens.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verify(token);
+        return claims == null ? null : claims.getSubject();
+    }
 
-        return claims.getSubject();
+    /**
+     * Monta o {@link UserPrincipal} a partir das claims do token (sem senha).
+     * Retorna null para tokens emitidos antes das claims de usuário existirem.
+     */
+    public UserPrincipal getPrincipal(Claims claims) {
+        Long id = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (id == null || role == null) {
+            return null;
+        }
+
+        return new UserPrincipal(
+            id,
+            claims.get(CLAIM_NAME, String.class),
+            claims.getSubject(),
+            null,
+            List.of(new SimpleGrantedAuthority(role))
+        );
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(authToken);
+        return verify(authToken) != null;
+    }
 
-            return true;
+    private Claims parse(String authToken) {
+        try {
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException ex) {
             // invalid JWT signature
         } catch (ExpiredJwtException ex) {
@@ -66,6 +162,39 @@ public class JwtTokenProvider {
             // empty claims string
         }
 
-        return false;
+        return null;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+
+    // entrada expira no que vier primeiro: o TTL do cache ou o "exp" do próprio token
+    private record TokenExpiry(long ttlNanos) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return ttlNanos;
+            }
+            long untilExpiration = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
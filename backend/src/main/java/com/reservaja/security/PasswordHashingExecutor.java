@@ -0,0 +1,124 @@
+package com.reservaja.security;
+
+import com.reservaja.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado e limitado para o trabalho de BCrypt (login e cadastro), para que picos de
+ * login não ocupem as threads do Tomcat. Com a fila cheia o pedido é rejeitado na hora (503).
+ * Tempo em fila e tempo de execução são medidos por operação (login, register).
+ *
+ * A gravação do hash pronto (cadastro, rehash no login) vai para um segundo pool, também
+ * limitado: com o banco lento, as threads de BCrypt continuam livres para calcular hashes.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor persistenceExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+    private final Counter persistenceRejected;
+
+    public PasswordHashingExecutor(@Value("${app.security.hashing.threads:0}") int threads,
+                                   @Value("${app.security.hashing.queue-capacity:100}") int queueCapacity,
+                                   @Value("${app.security.hashing.persistence-threads:2}") int persistenceThreads,
+                                   @Value("${app.security.hashing.persistence-queue-capacity:100}") int persistenceQueueCapacity,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = boundedPool("password-hashing", poolSize, queueCapacity);
+        this.persistenceExecutor = boundedPool("password-persistence", persistenceThreads, persistenceQueueCapacity);
+
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("reservaja.auth.hashing.rejected")
+                .description("Pedidos recusados com a fila do pool de hashing cheia")
+                .register(meterRegistry);
+        this.persistenceRejected = Counter.builder("reservaja.auth.persistence.rejected")
+                .description("Gravações recusadas com a fila do pool de gravação de senhas cheia")
+                .register(meterRegistry);
+        // fila, threads ativas e tarefas concluídas dos pools
+        new ExecutorServiceMetrics(executor, "password-hashing", List.of()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(persistenceExecutor, "password-persistence", List.of()).bindTo(meterRegistry);
+    }
+
+    private static ThreadPoolExecutor boundedPool(String name, int poolSize, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer waitTimer = timer("reservaja.auth.hashing.wait", "Tempo na fila do pool de hashing", operation);
+        Timer executionTimer = timer("reservaja.auth.hashing.execution", "Tempo de execução no pool de hashing (BCrypt)", operation);
+        return run(executor, waitTimer, executionTimer, task, rejected);
+    }
+
+    // acesso ao banco depois do hash (nunca no pool de BCrypt); fila cheia também responde 503
+    public <T> CompletableFuture<T> persist(String operation, Supplier<T> task) {
+        Timer waitTimer = timer("reservaja.auth.persistence.wait", "Tempo na fila do pool de gravação de senhas", operation);
+        Timer executionTimer = timer("reservaja.auth.persistence.execution", "Tempo de gravação de senhas no banco", operation);
+        return run(persistenceExecutor, waitTimer, executionTimer, task, persistenceRejected);
+    }
+
+    private static <T> CompletableFuture<T> run(ThreadPoolExecutor pool, Timer waitTimer, Timer executionTimer,
+                                                Supplier<T> task, Counter rejectedCounter) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return executionTimer.record(task);
+            }, pool);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(
+                new ServiceUnavailableException("Servidor ocupado processando autenticações, tente novamente"));
+        }
+    }
+
+    private Timer timer(String name, String description, String operation) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        persistenceExecutor.shutdown();
+    }
+}
@@ -1,6 +1,10 @@
 package com.reservaja.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reservaja.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,7 +13,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -22,6 +25,9 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
 
+    @Value("${app.jwt.stateless:true}")
+    private boolean statelessAuthentication;
+
     public SecurityConfig(JwtTokenProvider jwtTokenProvider, CustomUserDetailsService userDetailsService, JwtAuthenticationEntryPoint unauthorizedHandler) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
@@ -29,12 +35,14 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, statelessAuthentication, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter,
+                                           AdmissionControl admissionControl, ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) throws Exception {
         // Desabilita CSRF (para API stateless)
         http.csrf()
             .disable()
@@ -45,12 +53,21 @@ public class SecurityConfig {
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             .and()
             .authorizeHttpRequests(authz -> authz
+                    // despachos assíncronos (respostas em CompletableFuture) já foram autorizados na requisição original
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR)
+                    .permitAll()
                     // endpoints públicos de auth
                     .requestMatchers("/api/auth/**")
                     .permitAll()
+                    // health check e scrape do Prometheus
+                    .requestMatchers("/actuator/health/**", "/actuator/prometheus")
+                    .permitAll()
                     // swagger/openapi
                     .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                     .permitAll()
+                    // endpoints administrativos
+                    .requestMatchers("/api/admin/**")
+                    .hasRole("ADMIN")
                     // endpoints para administração de salas (apenas ADMIN)
                     .requestMatchers(HttpMethod.POST, "/api/rooms/**")
                     .hasRole("ADMIN")
@@ -63,7 +80,9 @@ public class SecurityConfig {
                     .authenticated()
             );
 
-        http.addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // limites por usuário/IP e de concorrência, já com o usuário autenticado
+        http.addFilterAfter(new AdmissionControlFilter(admissionControl, objectMapper, meterRegistry), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -74,8 +93,9 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
+    // custo ajustável; hashes com custo diferente são refeitos no próximo login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        return new CostAwareBCryptPasswordEncoder(strength);
     }
 }
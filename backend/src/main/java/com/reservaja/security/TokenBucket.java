@@ -0,0 +1,44 @@
+package com.reservaja.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem locks, no formato GCRA: o estado é um único "horário teórico de chegada"
+ * atualizado por CAS. Equivale a um balde de {@code burst} fichas reposto a {@code rate} por segundo.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consome uma ficha. Devolve 0 se aceito, ou quantos nanossegundos faltam para a próxima ficha.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, nowNanos);
+            if (base - nowNanos > toleranceNanos) {
+                return base - toleranceNanos - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devolve uma ficha consumida por {@link #tryAcquire} (ex.: a requisição foi recusada por
+     * outro orçamento). Somar ao horário teórico comuta com outras atualizações, sem CAS.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
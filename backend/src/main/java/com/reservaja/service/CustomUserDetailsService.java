@@ -1,32 +1,79 @@
 package com.reservaja.service;
 
+import com.reservaja.config.datasource.ReplicaRouting;
 import com.reservaja.model.entity.User;
 import com.reservaja.repository.UserRepository;
+import com.reservaja.security.PasswordHashingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger log = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     private final UserRepository userRepository;
+    private final UserPrincipalCache userCache;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final TransactionTemplate transaction;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserPrincipalCache userCache,
+                                    PasswordHashingExecutor hashingExecutor,
+                                    PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.hashingExecutor = hashingExecutor;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository
-                        .findByEmail(email)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return userCache.getByEmail(email, key -> {
+            // usuário recém-cadastrado pode ainda não ter chegado à réplica
+            User user = userRepository
+                            .findByEmail(key)
+                            .or(() -> ReplicaRouting.onPrimary(() -> userRepository.findByEmail(key)))
+                            .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + key));
+
+            return UserPrincipal.create(user);
+        });
+    }
+
+    // chamado pelo DaoAuthenticationProvider após login bem-sucedido quando o encoder pede rehash,
+    // ainda na thread de BCrypt: a gravação vai para o pool de gravação e o login não a espera.
+    // Se ela falhar, o hash antigo continua válido e o rehash se repete no próximo login
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        String email = userDetails.getUsername();
+        hashingExecutor.persist("rehash", () -> transaction.execute(status -> userRepository.findByEmail(email)
+                        .map(user -> {
+                            user.setPassword(newPassword);
+                            return userRepository.save(user);
+                        })))
+                .whenComplete((saved, ex) -> {
+                    if (ex != null) {
+                        log.warn("Falha ao gravar o rehash da senha de {}: {}", email, ex.getMessage());
+                    }
+                });
 
-        return UserPrincipal.create(user);
+        UserPrincipal principal = (UserPrincipal) userDetails;
+        return new UserPrincipal(principal.getId(), principal.getName(), email, newPassword,
+                List.copyOf(principal.getAuthorities()));
     }
 
     public UserDetails loadUserById(Long id) {
-        User user = userRepository
-                        .findById(id)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return userCache.getById(id, key -> {
+            User user = userRepository
+                            .findById(key)
+                            .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + key));
 
-        return UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        });
     }
 }
@@ -0,0 +1,13 @@
+package com.reservaja.service;
+
+/**
+ * Publicado pelo {@link com.reservaja.model.listener.UserEntityListener} quando um usuário
+ * é alterado ou removido, para invalidar caches após o commit.
+ */
+public record UserChangedEvent(Type type, Long userId, String email) {
+
+    public enum Type {
+        UPDATED,
+        DELETED
+    }
+}
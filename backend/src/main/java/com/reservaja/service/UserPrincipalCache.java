@@ -0,0 +1,91 @@
+package com.reservaja.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (tamanho + TTL) de {@link UserPrincipal}, indexado por email e por id.
+ * Entradas são invalidadas após o commit de qualquer alteração ou remoção do usuário.
+ */
+@Component
+public class UserPrincipalCache implements MeterBinder {
+
+    private final Cache<String, UserPrincipal> byEmail;
+    private final Cache<Long, UserPrincipal> byId;
+
+    public UserPrincipalCache(@Value("${app.cache.users.max-size:10000}") long maxSize,
+                              @Value("${app.cache.users.ttl:10m}") Duration ttl) {
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserPrincipal getByEmail(String email, Function<String, UserPrincipal> loader) {
+        UserPrincipal principal = byEmail.get(email, loader);
+        byId.put(principal.getId(), principal);
+        return principal;
+    }
+
+    public UserPrincipal getById(Long id, Function<Long, UserPrincipal> loader) {
+        UserPrincipal principal = byId.get(id, loader);
+        byEmail.put(principal.getUsername(), principal);
+        return principal;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId(), event.email());
+    }
+
+    // remove também pelo email antigo, caso o email tenha sido alterado
+    public void invalidate(Long id, String email) {
+        UserPrincipal previous = id == null ? null : byId.asMap().remove(id);
+        if (previous != null) {
+            byEmail.invalidate(previous.getUsername());
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    // estatísticas somadas dos dois índices (acertos, falhas, despejos)
+    public CacheStats stats() {
+        return byEmail.stats().plus(byId.stats());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byEmail, "users.by-email");
+        CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+    }
+
+    public Cache<String, UserPrincipal> byEmailCache() {
+        return byEmail;
+    }
+
+    public Cache<Long, UserPrincipal> byIdCache() {
+        return byId;
+    }
+}
@@ -0,0 +1,117 @@
+package com.reservaja.service.coherence;
+
+import com.reservaja.service.UserChangedEvent;
+import com.reservaja.service.hold.Hold;
+import com.reservaja.service.hold.HoldChangedEvent;
+import com.reservaja.service.reservation.ReservationChangedEvent;
+import com.reservaja.service.room.RoomChangedEvent;
+import com.reservaja.service.series.SeriesChangedEvent;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Formato compacto das invalidações trafegadas no canal. Cada payload é
+ * {@code <nó de origem>\n<entrada>\n<entrada>...}, com uma entrada por evento:
+ * <pre>
+ *   R+,id,sala,início,fim   reserva criada     R-,id,sala,início,fim   reserva removida
+ *   S+,sala,capacidade      sala criada        S~ / S-                 sala alterada / removida
+ *   U~,id,email             usuário alterado   U-,id,email             usuário removido
+ *   Q+,id,sala              série criada       Q~ / Q-                 série alterada / removida
+ *   H+,id,sala,usuário,início,fim,expira    bloqueio criado (expira em epoch ms)
+ *   H-,id,sala,usuário,início,fim,expira    bloqueio liberado
+ *   *                       recarregar tudo
+ * </pre>
+ */
+final class CoherenceMessages {
+
+    static final String RESYNC = "*";
+
+    private CoherenceMessages() {
+    }
+
+    static String encode(Object event) {
+        if (event instanceof ReservationChangedEvent e) {
+            String op = e.type() == ReservationChangedEvent.Type.CREATED ? "R+" : "R-";
+            return String.join(",", op, str(e.reservationId()), str(e.roomId()), str(e.startTime()), str(e.endTime()));
+        }
+        if (event instanceof RoomChangedEvent e) {
+            String op = switch (e.type()) {
+                case CREATED -> "S+";
+                case UPDATED -> "S~";
+                case DELETED -> "S-";
+            };
+            return String.join(",", op, str(e.roomId()), str(e.capacity()));
+        }
+        if (event instanceof UserChangedEvent e) {
+            String op = e.type() == UserChangedEvent.Type.UPDATED ? "U~" : "U-";
+            String email = e.email() == null ? "" : URLEncoder.encode(e.email(), StandardCharsets.UTF_8);
+            return String.join(",", op, str(e.userId()), email);
+        }
+        if (event instanceof SeriesChangedEvent e) {
+            String op = switch (e.type()) {
+                case CREATED -> "Q+";
+                case UPDATED -> "Q~";
+                case DELETED -> "Q-";
+            };
+            return String.join(",", op, str(e.seriesId()), str(e.roomId()));
+        }
+        if (event instanceof HoldChangedEvent e) {
+            String op = e.type() == HoldChangedEvent.Type.PLACED ? "H+" : "H-";
+            Hold h = e.hold();
+            return String.join(",", op, h.id(), str(h.roomId()), str(h.userId()), str(h.startTime()), str(h.endTime()),
+                    str(h.expiresAt().toEpochMilli()));
+        }
+        throw new IllegalArgumentException("Evento sem codificação: " + event.getClass().getName());
+    }
+
+    // devolve o evento, ou RESYNC
+    static Object decode(String entry) {
+        if (RESYNC.equals(entry)) {
+            return RESYNC;
+        }
+        String[] f = entry.split(",", -1);
+        return switch (f[0]) {
+            case "R+" -> ReservationChangedEvent.created(toLong(f[1]), toLong(f[2]), toTime(f[3]), toTime(f[4]));
+            case "R-" -> ReservationChangedEvent.deleted(toLong(f[1]), toLong(f[2]), toTime(f[3]), toTime(f[4]));
+            case "S+" -> new RoomChangedEvent(RoomChangedEvent.Type.CREATED, toLong(f[1]), toInt(f[2]));
+            case "S~" -> new RoomChangedEvent(RoomChangedEvent.Type.UPDATED, toLong(f[1]), toInt(f[2]));
+            case "S-" -> new RoomChangedEvent(RoomChangedEvent.Type.DELETED, toLong(f[1]), toInt(f[2]));
+            case "U~" -> new UserChangedEvent(UserChangedEvent.Type.UPDATED, toLong(f[1]), toEmail(f[2]));
+            case "U-" -> new UserChangedEvent(UserChangedEvent.Type.DELETED, toLong(f[1]), toEmail(f[2]));
+            case "Q+" -> new SeriesChangedEvent(SeriesChangedEvent.Type.CREATED, toLong(f[1]), toLong(f[2]));
+            case "Q~" -> new SeriesChangedEvent(SeriesChangedEvent.Type.UPDATED, toLong(f[1]), toLong(f[2]));
+            case "Q-" -> new SeriesChangedEvent(SeriesChangedEvent.Type.DELETED, toLong(f[1]), toLong(f[2]));
+            case "H+" -> new HoldChangedEvent(HoldChangedEvent.Type.PLACED, toHold(f));
+            case "H-" -> new HoldChangedEvent(HoldChangedEvent.Type.RELEASED, toHold(f));
+            default -> throw new IllegalArgumentException("Entrada desconhecida: " + entry);
+        };
+    }
+
+    private static Hold toHold(String[] f) {
+        return new Hold(f[1], toLong(f[3]), toLong(f[2]), toTime(f[4]), toTime(f[5]), Instant.ofEpochMilli(Long.parseLong(f[6])));
+    }
+
+    private static String str(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static Long toLong(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    private static Integer toInt(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static LocalDateTime toTime(String value) {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    private static String toEmail(String value) {
+        return value.isEmpty() ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
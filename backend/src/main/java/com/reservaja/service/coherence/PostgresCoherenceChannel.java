@@ -0,0 +1,347 @@
+package com.reservaja.service.coherence;
+
+import com.reservaja.service.UserChangedEvent;
+import com.reservaja.service.UserPrincipalCache;
+import com.reservaja.service.hold.HoldChangedEvent;
+import com.reservaja.service.reservation.ReservationChangedEvent;
+import com.reservaja.service.reservation.RoomCalendarIndex;
+import com.reservaja.service.room.RoomCacheInvalidator;
+import com.reservaja.service.room.RoomChangedEvent;
+import com.reservaja.service.room.RoomOccupancyIndex;
+import com.reservaja.service.series.SeriesChangedEvent;
+import com.reservaja.service.series.SeriesIndex;
+import com.reservaja.service.version.ResourceVersions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coerência entre nós via LISTEN/NOTIFY do PostgreSQL, sem broker externo.
+ *
+ * Saída: após o commit, cada alteração de reserva, série, sala ou usuário vira uma entrada compacta
+ * ({@link CoherenceMessages}); uma thread agrupa as entradas a cada {@code flush-interval-ms}
+ * em poucos NOTIFY. Entrada: uma conexão dedicada escuta o canal, descarta o que o próprio nó
+ * enviou, consolida o lote (último evento por sala/reserva vence) e republica os eventos
+ * localmente, fora de transação; os índices e caches já os tratam com {@code fallbackExecution}.
+ *
+ * Notificações enviadas enquanto um nó está desconectado se perdem, por isso ao reconectar
+ * o nó recarrega tudo. Pelo mesmo motivo, um NOTIFY que falha ou uma fila de saída cheia
+ * viram um pedido de recarga completa para os outros nós. Bloqueios provisórios só existem
+ * em memória: os perdidos numa desconexão não voltam com a recarga.
+ *
+ * A fila de saída também só existe em memória: se o nó cair entre o commit e o envio, as
+ * alterações não chegam aos outros nós e ninguém pede recarga; os índices deles ficam
+ * desatualizados até a próxima recarga. Conflitos de reserva continuam barrados pelo banco.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.coherence", name = "enabled", havingValue = "true")
+public class PostgresCoherenceChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresCoherenceChannel.class);
+
+    // limite do payload do NOTIFY é 8000 bytes; as entradas são ASCII
+    private static final int MAX_PAYLOAD = 7500;
+
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPrincipalCache userCache;
+    private final RoomCacheInvalidator roomCache;
+    private final RoomCalendarIndex calendarIndex;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final SeriesIndex seriesIndex;
+    private final ResourceVersions versions;
+
+    @Value("${app.coherence.channel:reservaja_coherence}")
+    private String channel;
+
+    @Value("${app.coherence.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${app.coherence.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${app.coherence.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${app.coherence.reconnect-backoff-ms:1000}")
+    private long reconnectBackoffMs;
+
+    private final ConcurrentLinkedQueue<String> outbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean overflowed;
+    private volatile boolean running;
+
+    private Thread sender;
+    private Thread listener;
+
+    public PostgresCoherenceChannel(JdbcTemplate jdbcTemplate,
+                                    DataSourceProperties dataSourceProperties,
+                                    ApplicationEventPublisher eventPublisher,
+                                    UserPrincipalCache userCache,
+                                    RoomCacheInvalidator roomCache,
+                                    RoomCalendarIndex calendarIndex,
+                                    RoomOccupancyIndex occupancyIndex,
+                                    SeriesIndex seriesIndex,
+                                    ResourceVersions versions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.userCache = userCache;
+        this.roomCache = roomCache;
+        this.calendarIndex = calendarIndex;
+        this.occupancyIndex = occupancyIndex;
+        this.seriesIndex = seriesIndex;
+        this.versions = versions;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Nome de canal inválido: " + channel);
+        }
+        running = true;
+
+        sender = new Thread(this::sendLoop, "coherence-sender");
+        sender.setDaemon(true);
+        sender.start();
+
+        // escuta desde antes da carga dos índices: o que chegar antes é sobrescrito pela carga
+        listener = new Thread(this::listenLoop, "coherence-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        sender.interrupt();
+        listener.interrupt();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        enqueue(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        enqueue(event);
+    }
+
+    // expirações não trafegam: cada nó expira os bloqueios pelo próprio relógio
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldChanged(HoldChangedEvent event) {
+        if (event.type() != HoldChangedEvent.Type.EXPIRED) {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(Object event) {
+        // eventos republicados pela thread de escuta vieram de outro nó
+        if (Thread.currentThread() == listener) {
+            return;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            overflowed = true;
+            return;
+        }
+        outbox.add(CoherenceMessages.encode(event));
+    }
+
+    // ---- saída ----
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+                flush();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush() {
+        Set<String> entries = new LinkedHashSet<>();
+        String entry;
+        while ((entry = outbox.poll()) != null) {
+            pending.decrementAndGet();
+            entries.add(entry);
+        }
+        if (overflowed) {
+            overflowed = false;
+            entries = Set.of(CoherenceMessages.RESYNC);
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (String payload : payloads(entries)) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+            }
+        } catch (DataAccessException ex) {
+            // entradas perdidas: os outros nós precisam recarregar tudo
+            log.warn("Falha ao publicar invalidações ({} entradas): {}", entries.size(), ex.getMessage());
+            overflowed = true;
+        }
+    }
+
+    private List<String> payloads(Set<String> entries) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder(nodeId);
+        for (String entry : entries) {
+            if (current.length() + entry.length() + 1 > MAX_PAYLOAD && current.length() > nodeId.length()) {
+                payloads.add(current.toString());
+                current = new StringBuilder(nodeId);
+            }
+            current.append('\n').append(entry);
+        }
+        payloads.add(current.toString());
+        return payloads;
+    }
+
+    // ---- entrada ----
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Nó {} escutando o canal de coerência {}", nodeId, channel);
+
+                // o que foi notificado enquanto estava desconectado se perdeu
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        apply(notifications);
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Canal de coerência desconectado: {}", ex.getMessage());
+                try {
+                    Thread.sleep(reconnectBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(PGNotification[] notifications) {
+        Map<Long, RoomChangedEvent> rooms = new LinkedHashMap<>();
+        Map<Long, ReservationChangedEvent> reservations = new LinkedHashMap<>();
+        Set<UserChangedEvent> users = new LinkedHashSet<>();
+        Map<Long, SeriesChangedEvent> series = new LinkedHashMap<>();
+        Map<String, HoldChangedEvent> holds = new LinkedHashMap<>();
+
+        for (PGNotification notification : notifications) {
+            String[] lines = notification.getParameter().split("\n");
+            if (lines[0].equals(nodeId)) {
+                continue;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                Object event;
+                try {
+                    event = CoherenceMessages.decode(lines[i]);
+                } catch (RuntimeException ex) {
+                    log.warn("Entrada de coerência inválida '{}': {}", lines[i], ex.getMessage());
+                    event = CoherenceMessages.RESYNC;
+                }
+                if (event == CoherenceMessages.RESYNC) {
+                    resync();
+                    return;
+                }
+                if (event instanceof RoomChangedEvent room) {
+                    rooms.put(room.roomId(), room);
+                } else if (event instanceof ReservationChangedEvent reservation) {
+                    reservations.put(reservation.reservationId(), reservation);
+                } else if (event instanceof UserChangedEvent user) {
+                    users.add(user);
+                } else if (event instanceof SeriesChangedEvent change) {
+                    series.put(change.seriesId(), change);
+                } else if (event instanceof HoldChangedEvent hold) {
+                    holds.put(hold.hold().id(), hold);
+                }
+            }
+        }
+
+        // salas antes das reservas: o índice de ocupação precisa da sala no catálogo
+        rooms.values().forEach(eventPublisher::publishEvent);
+        reservations.values().forEach(eventPublisher::publishEvent);
+        series.values().forEach(eventPublisher::publishEvent);
+        holds.values().forEach(eventPublisher::publishEvent);
+        users.forEach(eventPublisher::publishEvent);
+    }
+
+    private void resync() {
+        try {
+            userCache.invalidateAll();
+            roomCache.evictAll();
+            calendarIndex.reload();
+            occupancyIndex.reload();
+            seriesIndex.reload();
+            // salas alteradas nas notificações perdidas; as janelas já saem dos índices recarregados
+            versions.reload();
+            log.info("Nó {} recarregou caches e índices", nodeId);
+        } catch (DataAccessException ex) {
+            // banco indisponível: a conexão de escuta também cai e a recarga se repete ao reconectar
+            log.warn("Falha ao recarregar caches e índices: {}", ex.getMessage());
+        }
+    }
+}
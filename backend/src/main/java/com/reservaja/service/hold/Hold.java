@@ -0,0 +1,15 @@
+package com.reservaja.service.hold;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Bloqueio provisório de um horário, só em memória: impede outros usuários de reservar
+ * [startTime, endTime) até {@code expiresAt} ou até ser confirmado/liberado.
+ */
+public record Hold(String id, Long userId, Long roomId, LocalDateTime startTime, LocalDateTime endTime, Instant expiresAt) {
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
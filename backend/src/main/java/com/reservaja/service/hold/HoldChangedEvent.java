@@ -0,0 +1,14 @@
+package com.reservaja.service.hold;
+
+/**
+ * Publicado quando um bloqueio é criado, liberado (cancelado ou confirmado) ou expira.
+ * Expirações não trafegam entre nós: cada nó expira as suas cópias pelo próprio relógio.
+ */
+public record HoldChangedEvent(Type type, Hold hold) {
+
+    public enum Type {
+        PLACED,
+        RELEASED,
+        EXPIRED
+    }
+}
@@ -0,0 +1,185 @@
+package com.reservaja.service.hold;
+
+import com.reservaja.service.UserChangedEvent;
+import com.reservaja.service.room.RoomChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Bloqueios provisórios ativos, só em memória: nada é gravado no banco, e um bloqueio que
+ * expira só sai dos mapas. A expiração é agendada em uma {@link TimingWheel} (agendar e
+ * cancelar em O(1), sem varredura periódica).
+ *
+ * Escritas são serializadas no registro; leituras (checagem de conflito) usam listas
+ * imutáveis por sala e por usuário, trocadas inteiras a cada alteração.
+ */
+@Component
+public class HoldRegistry {
+
+    // 64 baldes por roda em 4 níveis: ticks de 100 ms alcançam ~19 dias
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+
+    private record Entry(Hold hold, TimingWheel.Timeout timeout) {
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TimingWheel wheel;
+
+    private final Map<String, Entry> holds = new ConcurrentHashMap<>();
+    private final Map<Long, List<Hold>> byRoom = new ConcurrentHashMap<>();
+    private final Map<Long, List<Hold>> byUser = new ConcurrentHashMap<>();
+
+    public HoldRegistry(ApplicationEventPublisher eventPublisher,
+                        @Value("${app.holds.tick:100ms}") Duration tick,
+                        MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.wheel = new TimingWheel("hold-expiry", tick, WHEEL_BITS, WHEEL_LEVELS);
+
+        Gauge.builder("reservaja.holds.active", holds, Map::size)
+                .description("Bloqueios provisórios ativos neste nó")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    // bloqueios criados ou liberados em outro nó (os deste nó já estão aplicados)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onHoldChanged(HoldChangedEvent event) {
+        switch (event.type()) {
+            case PLACED -> place(event.hold());
+            case RELEASED -> release(event.hold().id());
+            case EXPIRED -> {
+                // já removido pela própria roda
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.type() == RoomChangedEvent.Type.DELETED) {
+            removeIf(hold -> hold.roomId().equals(event.roomId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            removeIf(hold -> hold.userId().equals(event.userId()));
+        }
+    }
+
+    // false se o id já existe ou o bloqueio já expirou
+    public synchronized boolean place(Hold hold) {
+        Duration remaining = Duration.between(Instant.now(), hold.expiresAt());
+        if (holds.containsKey(hold.id()) || remaining.isNegative() || remaining.isZero()) {
+            return false;
+        }
+        TimingWheel.Timeout timeout = wheel.schedule(remaining, () -> expire(hold.id()));
+        holds.put(hold.id(), new Entry(hold, timeout));
+        byRoom.compute(hold.roomId(), (id, list) -> with(list, hold));
+        byUser.compute(hold.userId(), (id, list) -> with(list, hold));
+        return true;
+    }
+
+    public synchronized Hold release(String holdId) {
+        Entry entry = holds.remove(holdId);
+        if (entry == null) {
+            return null;
+        }
+        entry.timeout().cancel();
+        unindex(entry.hold());
+        return entry.hold();
+    }
+
+    public Hold find(String holdId) {
+        Entry entry = holds.get(holdId);
+        return entry == null ? null : entry.hold();
+    }
+
+    // bloqueios da sala sobrepondo [start, end), exceto os do próprio usuário (null = todos)
+    public List<Hold> overlapping(Long roomId, LocalDateTime start, LocalDateTime end, Long exceptUserId) {
+        return byRoom.getOrDefault(roomId, List.of()).stream()
+                .filter(hold -> !hold.userId().equals(exceptUserId) && hold.overlaps(start, end))
+                .toList();
+    }
+
+    public boolean isFree(Long roomId, LocalDateTime start, LocalDateTime end, Long exceptUserId) {
+        return byRoom.getOrDefault(roomId, List.of()).stream()
+                .noneMatch(hold -> !hold.userId().equals(exceptUserId) && hold.overlaps(start, end));
+    }
+
+    public List<Hold> forUser(Long userId) {
+        return byUser.getOrDefault(userId, List.of());
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    private void expire(String holdId) {
+        Hold expired;
+        synchronized (this) {
+            Entry entry = holds.remove(holdId);
+            if (entry == null) {
+                return;
+            }
+            unindex(entry.hold());
+            expired = entry.hold();
+        }
+        eventPublisher.publishEvent(new HoldChangedEvent(HoldChangedEvent.Type.EXPIRED, expired));
+    }
+
+    private synchronized void removeIf(Predicate<Hold> predicate) {
+        List<String> ids = holds.values().stream()
+                .map(Entry::hold)
+                .filter(predicate)
+                .map(Hold::id)
+                .toList();
+        ids.forEach(this::release);
+    }
+
+    // caller segura o lock
+    private void unindex(Hold hold) {
+        byRoom.computeIfPresent(hold.roomId(), (id, list) -> without(list, hold));
+        byUser.computeIfPresent(hold.userId(), (id, list) -> without(list, hold));
+    }
+
+    private static List<Hold> with(List<Hold> list, Hold hold) {
+        List<Hold> updated = new ArrayList<>(list == null ? List.of() : list);
+        updated.add(hold);
+        return List.copyOf(updated);
+    }
+
+    private static List<Hold> without(List<Hold> list, Hold hold) {
+        List<Hold> updated = list.stream().filter(other -> !other.id().equals(hold.id())).toList();
+        return updated.isEmpty() ? null : updated;
+    }
+}
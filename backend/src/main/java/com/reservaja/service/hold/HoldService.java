@@ -0,0 +1,118 @@
+package com.reservaja.service.hold;
+
+import com.reservaja.dto.reservation.ReservationRequest;
+import com.reservaja.exception.ConflictException;
+import com.reservaja.exception.ResourceNotFoundException;
+import com.reservaja.exception.ServiceUnavailableException;
+import com.reservaja.model.entity.Reservation;
+import com.reservaja.model.entity.User;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.reservation.ReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bloqueios provisórios de horário (fluxo de checkout): o usuário segura o horário por
+ * {@code app.holds.ttl} e depois confirma, virando uma {@link Reservation}, ou desiste.
+ * Bloqueios de outros usuários contam como ocupação em todas as checagens de conflito;
+ * os do próprio usuário não, para que ele possa confirmar.
+ *
+ * Criar e confirmar rodam na raia da sala ({@code BookingLanes}), serializados com as reservas
+ * dela, inclusive as de lotes. Entre nós os bloqueios trafegam pelo canal de coerência, sem
+ * garantia de exclusão: uma corrida entre nós pode deixar dois bloqueios sobrepostos, e só a
+ * confirmação que gravar primeiro vence (exclusion constraint).
+ */
+@Service
+public class HoldService {
+
+    private final HoldRegistry registry;
+    private final ReservationService reservationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final int maxPerUser;
+    private final int maxActive;
+
+    public HoldService(HoldRegistry registry,
+                       ReservationService reservationService,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${app.holds.ttl:5m}") Duration ttl,
+                       @Value("${app.holds.max-per-user:5}") int maxPerUser,
+                       @Value("${app.holds.max-active:100000}") int maxActive) {
+        this.registry = registry;
+        this.reservationService = reservationService;
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+        this.maxPerUser = maxPerUser;
+        this.maxActive = maxActive;
+    }
+
+    public Hold place(Long userId, ReservationRequest request) {
+        if (registry.forUser(userId).size() >= maxPerUser) {
+            throw new ConflictException("Limite de " + maxPerUser + " bloqueios ativos por usuário");
+        }
+        if (registry.size() >= maxActive) {
+            throw new ServiceUnavailableException("Muitos bloqueios ativos, tente novamente");
+        }
+
+        reservationService.checkBookable(userId, request.getRoomId(), request.getStartTime(), request.getEndTime());
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, request.getRoomId(),
+                request.getStartTime(), request.getEndTime(), Instant.now().plus(ttl));
+        registry.place(hold);
+        eventPublisher.publishEvent(new HoldChangedEvent(HoldChangedEvent.Type.PLACED, hold));
+        return hold;
+    }
+
+    // sala do bloqueio, para escolher a raia antes de confirmar
+    public Hold find(String holdId) {
+        Hold hold = registry.find(holdId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Bloqueio não encontrado ou expirado: " + holdId);
+        }
+        return hold;
+    }
+
+    public Reservation confirm(String holdId, UserPrincipal principal) {
+        Hold hold = find(holdId);
+        if (!hold.userId().equals(principal.getId())) {
+            throw new AccessDeniedException("Bloqueio pertence a outro usuário");
+        }
+
+        ReservationRequest request = new ReservationRequest();
+        request.setRoomId(hold.roomId());
+        request.setStartTime(hold.startTime());
+        request.setEndTime(hold.endTime());
+        Reservation saved = reservationService.create(hold.userId(), request);
+
+        release(hold);
+        return saved;
+    }
+
+    public void cancel(String holdId, UserPrincipal principal) {
+        Hold hold = find(holdId);
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(authority -> User.Role.ROLE_ADMIN.name().equals(authority.getAuthority()));
+
+        if (!isAdmin && !hold.userId().equals(principal.getId())) {
+            throw new AccessDeniedException("Bloqueio pertence a outro usuário");
+        }
+        release(hold);
+    }
+
+    public List<Hold> listForUser(Long userId) {
+        return registry.forUser(userId);
+    }
+
+    private void release(Hold hold) {
+        if (registry.release(hold.id()) != null) {
+            eventPublisher.publishEvent(new HoldChangedEvent(HoldChangedEvent.Type.RELEASED, hold));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.reservaja.service.hold;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timing wheel hierárquica (Varghese e Lauck): {@code levels} rodas de {@code 2^bits} baldes,
+ * a roda de nível L com ticks de {@code tick * 2^(bits*L)}. Agendar e cancelar custam O(1)
+ * (inserir/remover de uma lista duplamente encadeada); a cada volta da roda de baixo, o balde
+ * atual da roda de cima é redistribuído nas rodas menores.
+ *
+ * Uma thread própria avança os ticks e executa as tarefas vencidas, fora do lock e na ordem
+ * do tick; tarefas devem ser curtas. Prazos além do alcance da roda de cima ficam no último
+ * balde dela e são reagendados a cada volta até caberem.
+ */
+public final class TimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final int bits;
+    private final long mask;
+    private final Bucket[][] wheels;
+    private final long startNanos = System.nanoTime();
+    private final Thread ticker;
+
+    // guardado pelo lock de "this"
+    private long currentTick;
+    private int pending;
+
+    public TimingWheel(String name, Duration tick, int bits, int levels) {
+        if (bits < 1 || levels < 1 || (long) bits * levels > 62) {
+            throw new IllegalArgumentException("Configuração de roda inválida: bits=" + bits + ", levels=" + levels);
+        }
+        this.tickNanos = tick.toNanos();
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.wheels = new Bucket[levels][1 << bits];
+        for (Bucket[] wheel : wheels) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Bucket();
+            }
+        }
+        this.ticker = new Thread(this::run, name);
+        this.ticker.setDaemon(true);
+    }
+
+    public void start() {
+        ticker.start();
+    }
+
+    public void stop() {
+        ticker.interrupt();
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    /**
+     * Agenda a tarefa para daqui a {@code delay}, nunca antes: o prazo é arredondado para cima
+     * até a fronteira de tick seguinte. Atrasos nulos ou negativos vencem no próximo tick.
+     */
+    public synchronized Timeout schedule(Duration delay, Runnable task) {
+        long dueNanos = System.nanoTime() - startNanos + Math.max(0, delay.toNanos());
+        long deadline = Math.max(currentTick + 1, (dueNanos + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(deadline, task);
+        place(timeout, null);
+        pending++;
+        return timeout;
+    }
+
+    private void run() {
+        List<Timeout> expired = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            long now = (System.nanoTime() - startNanos) / tickNanos;
+            synchronized (this) {
+                while (currentTick < now) {
+                    advance(expired);
+                }
+            }
+            for (Timeout timeout : expired) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException ex) {
+                    log.error("Falha em tarefa da timing wheel", ex);
+                }
+            }
+            expired.clear();
+
+            long nextTickNanos = startNanos + (now + 1) * tickNanos;
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(1, nextTickNanos - System.nanoTime()));
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+
+    // um tick: redistribui as rodas de cima que completaram volta e vence o balde atual da de baixo
+    private void advance(List<Timeout> expired) {
+        currentTick++;
+        for (int level = wheels.length - 1; level >= 1; level--) {
+            if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                Bucket bucket = wheels[level][(int) ((currentTick >>> (bits * level)) & mask)];
+                for (Timeout timeout : bucket.drain()) {
+                    place(timeout, expired);
+                }
+            }
+        }
+        for (Timeout timeout : wheels[0][(int) (currentTick & mask)].drain()) {
+            pending--;
+            expired.add(timeout);
+        }
+    }
+
+    // caller segura o lock; prazos já alcançados (numa redistribuição) vencem neste tick
+    private void place(Timeout timeout, List<Timeout> expired) {
+        long delta = timeout.deadline - currentTick;
+        if (delta <= 0 && expired != null) {
+            pending--;
+            expired.add(timeout);
+            return;
+        }
+        for (int level = 0; level < wheels.length; level++) {
+            if (delta < 1L << (bits * (level + 1))) {
+                wheels[level][(int) ((timeout.deadline >>> (bits * level)) & mask)].add(timeout);
+                return;
+            }
+        }
+        // além do alcance: último balde da roda de cima, reagendado quando ela girar
+        int top = wheels.length - 1;
+        long farthest = currentTick + (1L << (bits * wheels.length)) - 1;
+        wheels[top][(int) ((farthest >>> (bits * top)) & mask)].add(timeout);
+    }
+
+    public final class Timeout {
+
+        private final long deadline;
+        private final Runnable task;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        // false se já venceu ou já foi cancelada
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                if (bucket == null) {
+                    return false;
+                }
+                bucket.remove(this);
+                pending--;
+                return true;
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        List<Timeout> drain() {
+            if (head == null) {
+                return List.of();
+            }
+            List<Timeout> drained = new ArrayList<>();
+            Timeout current = head;
+            head = null;
+            while (current != null) {
+                Timeout next = current.next;
+                current.bucket = null;
+                current.prev = null;
+                current.next = null;
+                drained.add(current);
+                current = next;
+            }
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.reservaja.service.reservation;
+
+import com.reservaja.dto.reservation.ReservationRequest;
+
+// pedido de reserva enfileirado em uma raia de BookingLanes
+public record BookingCommand(Long userId, ReservationRequest request) {
+}
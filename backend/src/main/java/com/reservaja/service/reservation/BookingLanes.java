@@ -0,0 +1,233 @@
+package com.reservaja.service.reservation;
+
+import com.reservaja.dto.reservation.ReservationRequest;
+import com.reservaja.exception.ServiceUnavailableException;
+import com.reservaja.model.entity.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Raias de escrita serializadas por sala. Cada sala é mapeada (por id) para uma raia com
+ * uma fila limitada e uma única thread escritora, então as reservas de uma mesma sala são
+ * ordenadas sem locks no banco, enquanto salas em raias diferentes seguem em paralelo.
+ * Entre nós quem decide é o próprio INSERT: a exclusion constraint e a versão das séries
+ * da sala (ver {@link ReservationService}).
+ *
+ * A thread da raia drena os pedidos acumulados e grava todos em uma transação
+ * ({@link ReservationService#createAll}); os perdedores recebem 409. Trabalhos exclusivos
+ * ({@link #runExclusive}, ex.: criar uma série recorrente, um bloqueio ou um lote de várias
+ * salas) rodam sozinhos nas raias das suas salas, depois dos pedidos que chegaram antes deles.
+ */
+@Component
+public class BookingLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLanes.class);
+
+    private final ReservationService reservationService;
+
+    @Value("${app.booking.lanes:0}")
+    private int laneCount;
+
+    @Value("${app.booking.lane-queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${app.booking.max-batch-size:64}")
+    private int maxBatchSize;
+
+    private Lane[] lanes;
+
+    public BookingLanes(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    @PostConstruct
+    public void start() {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane(i, new ArrayBlockingQueue<>(queueCapacity));
+            lanes[i].start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Lane lane : lanes) {
+            lane.interrupt();
+        }
+    }
+
+    public CompletableFuture<Reservation> submit(Long userId, ReservationRequest request) {
+        Task task = new Task(new BookingCommand(userId, request), new CompletableFuture<>(), null);
+        enqueue(request.getRoomId(), task);
+        return task.future();
+    }
+
+    // executa o trabalho na thread da raia da sala, sem reservas da mesma sala em paralelo
+    public <T> CompletableFuture<T> runExclusive(Long roomId, Supplier<T> work) {
+        return runExclusive(List.of(roomId), work);
+    }
+
+    /**
+     * Executa o trabalho com as raias de todas as salas paradas (ex.: um lote de várias salas).
+     * As raias são tomadas uma a uma em ordem de índice: cada uma, ao chegar a vez do trabalho,
+     * pede a seguinte e fica parada até o resultado sair; o trabalho roda na última. Com a ordem
+     * fixa, dois trabalhos que disputam raias nunca esperam um pelo outro em ciclo.
+     */
+    public <T> CompletableFuture<T> runExclusive(Collection<Long> roomIds, Supplier<T> work) {
+        List<Lane> needed = roomIds.stream()
+                .map(this::laneOf)
+                .distinct()
+                .sorted(Comparator.comparingInt(lane -> lane.index))
+                .toList();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        acquire(needed, 0, work, result);
+        return result;
+    }
+
+    // fila cheia em qualquer raia completa o resultado com 503, o que solta as raias já paradas
+    private <T> void acquire(List<Lane> needed, int next, Supplier<T> work, CompletableFuture<T> result) {
+        Runnable step = next == needed.size() - 1
+                ? () -> result.complete(work.get())
+                : () -> {
+                    acquire(needed, next + 1, work, result);
+                    result.handle((value, ex) -> null).join();
+                };
+        enqueue(needed.get(next), new Task(null, null, new Exclusive(step, result)));
+    }
+
+    private Lane laneOf(Long roomId) {
+        return lanes[Math.floorMod(roomId.hashCode(), lanes.length)];
+    }
+
+    private void enqueue(Long roomId, Task task) {
+        enqueue(laneOf(roomId), task);
+    }
+
+    private void enqueue(Lane lane, Task task) {
+        if (!lane.queue.offer(task)) {
+            task.fail(new ServiceUnavailableException("Fila de reservas cheia, tente novamente"));
+        }
+    }
+
+    // pedido de reserva (command/future) ou trabalho exclusivo
+    private record Task(BookingCommand command, CompletableFuture<Reservation> future, Exclusive exclusive) {
+
+        void fail(RuntimeException ex) {
+            if (exclusive != null) {
+                exclusive.result.completeExceptionally(ex);
+            } else {
+                future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private record Exclusive(Runnable work, CompletableFuture<?> result) {
+
+        void run() {
+            try {
+                work.run();
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private final class Lane extends Thread {
+
+        private final int index;
+        private final BlockingQueue<Task> queue;
+
+        Lane(int index, BlockingQueue<Task> queue) {
+            super("booking-lane-" + index);
+            this.index = index;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            List<Task> batch = new ArrayList<>(maxBatchSize);
+            while (!isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException ex) {
+                    break;
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+
+                processInOrder(batch);
+                batch.clear();
+            }
+
+            // desligando: quem ainda está na fila recebe 503
+            List<Task> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            pending.forEach(task -> task.fail(new ServiceUnavailableException("Serviço de reservas encerrando")));
+        }
+
+        // reservas acumuladas vão em lote; um trabalho exclusivo espera o lote anterior gravar
+        private void processInOrder(List<Task> tasks) {
+            List<Task> bookings = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                if (task.exclusive == null) {
+                    bookings.add(task);
+                    continue;
+                }
+                if (!bookings.isEmpty()) {
+                    process(bookings);
+                    bookings.clear();
+                }
+                task.exclusive.run();
+            }
+            if (!bookings.isEmpty()) {
+                process(bookings);
+            }
+        }
+
+        private void process(List<Task> batch) {
+            try {
+                List<BookingResult> results = reservationService.createAll(
+                    batch.stream().map(Task::command).toList());
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i).future, results.get(i));
+                }
+            } catch (DataIntegrityViolationException ex) {
+                // corrida com outro nó: reprocessa um a um para isolar o perdedor
+                batch.forEach(this::processSingle);
+            } catch (RuntimeException ex) {
+                log.error("Falha ao processar lote de reservas", ex);
+                batch.forEach(task -> task.future.completeExceptionally(ex));
+            }
+        }
+
+        private void processSingle(Task task) {
+            try {
+                task.future.complete(reservationService.create(task.command.userId(), task.command.request()));
+            } catch (RuntimeException ex) {
+                task.future.completeExceptionally(ex);
+            }
+        }
+
+        private void complete(CompletableFuture<Reservation> future, BookingResult result) {
+            if (result.error() != null) {
+                future.completeExceptionally(result.error());
+            } else {
+                future.complete(result.reservation());
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.reservaja.service.reservation;
+
+import com.reservaja.model.entity.Reservation;
+
+// resultado individual de um pedido processado em lote: a reserva criada ou o erro do perdedor
+public record BookingResult(Reservation reservation, RuntimeException error) {
+
+    public static BookingResult success(Reservation reservation) {
+        return new BookingResult(reservation, null);
+    }
+
+    public static BookingResult failure(RuntimeException error) {
+        return new BookingResult(null, error);
+    }
+}
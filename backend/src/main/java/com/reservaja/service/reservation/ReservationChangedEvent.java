@@ -0,0 +1,27 @@
+package com.reservaja.service.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado pelo {@link ReservationService} sempre que uma reserva é criada ou removida.
+ * Os índices em memória escutam este evento após o commit da transação.
+ */
+public record ReservationChangedEvent(Type type,
+                                      Long reservationId,
+                                      Long roomId,
+                                      LocalDateTime startTime,
+                                      LocalDateTime endTime) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    public static ReservationChangedEvent created(Long reservationId, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        return new ReservationChangedEvent(Type.CREATED, reservationId, roomId, startTime, endTime);
+    }
+
+    public static ReservationChangedEvent deleted(Long reservationId, Long roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        return new ReservationChangedEvent(Type.DELETED, reservationId, roomId, startTime, endTime);
+    }
+}
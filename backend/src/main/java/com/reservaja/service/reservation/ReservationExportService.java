@@ -0,0 +1,194 @@
+package com.reservaja.service.reservation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.reservaja.config.ReservationPartitioning;
+import com.reservaja.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Exporta reservas direto do cursor JDBC para o stream de saída, linha a linha.
+ * Nenhuma entidade é criada e o contexto de persistência não é tocado, então a memória
+ * fica constante independentemente do número de linhas.
+ *
+ * No PostgreSQL o fetch size só vira cursor no servidor com autocommit desligado,
+ * por isso a leitura roda dentro de uma transação somente leitura. Com a tabela particionada,
+ * a leitura passa pela função de histórico, que inclui os meses já arquivados.
+ */
+@Service
+public class ReservationExportService {
+
+    private static final String EXPORT_SQL = """
+        SELECT r.id, r.room_id, rm.name AS room_name, r.user_id, u.email AS user_email, r.start_time, r.end_time
+          FROM reservations r
+          JOIN rooms rm ON rm.id = r.room_id
+          JOIN users u ON u.id = r.user_id
+         WHERE r.start_time >= ? AND r.start_time < ?
+         ORDER BY r.start_time, r.id
+        """;
+
+    private static final String HISTORY_EXPORT_SQL = """
+        SELECT r.id, r.room_id, rm.name AS room_name, r.user_id, u.email AS user_email, r.start_time, r.end_time
+          FROM %s(?, ?) r
+          JOIN rooms rm ON rm.id = r.room_id
+          JOIN users u ON u.id = r.user_id
+         ORDER BY r.start_time, r.id
+        """.formatted(ReservationPartitioning.HISTORY_FUNCTION);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReservationPartitioning partitioning;
+
+    public ReservationExportService(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    ReservationPartitioning partitioning,
+                                    @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        // instância própria para não alterar o fetch size do JdbcTemplate compartilhado
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.partitioning = partitioning;
+    }
+
+    public void export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream output) throws IOException {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Horário inicial deve ser anterior ao horário final");
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        String sql = partitioning.isActive() ? HISTORY_EXPORT_SQL : EXPORT_SQL;
+
+        try {
+            rowWriter.header();
+            readOnlyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(sql, rs -> {
+                    try {
+                        rowWriter.row(rs);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+            rowWriter.finish();
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void header() throws IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void header() throws IOException {
+            writer.write("id,room_id,room_name,user_id,user_email,start_time,end_time\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(2)));
+            writer.write(',');
+            writeEscaped(rs.getString(3));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(4)));
+            writer.write(',');
+            writeEscaped(rs.getString(5));
+            writer.write(',');
+            writer.write(rs.getTimestamp(6).toLocalDateTime().toString());
+            writer.write(',');
+            writer.write(rs.getTimestamp(7).toLocalDateTime().toString());
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = JSON_FACTORY.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // cada objeto em sua própria linha
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header() {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong(1));
+            generator.writeNumberField("roomId", rs.getLong(2));
+            generator.writeStringField("roomName", rs.getString(3));
+            generator.writeNumberField("userId", rs.getLong(4));
+            generator.writeStringField("userEmail", rs.getString(5));
+            generator.writeStringField("startTime", rs.getTimestamp(6).toLocalDateTime().toString());
+            generator.writeStringField("endTime", rs.getTimestamp(7).toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package com.reservaja.service.reservation;
+
+import com.reservaja.config.datasource.ReadYourWritesTracker;
+import com.reservaja.dto.reservation.ReservationPageResponse;
+import com.reservaja.dto.reservation.ReservationRequest;
+import com.reservaja.dto.reservation.SlotAvailabilityResponse;
+import com.reservaja.exception.BadRequestException;
+import com.reservaja.exception.ConflictException;
+import com.reservaja.exception.DataIntegrityErrors;
+import com.reservaja.exception.ResourceNotFoundException;
+import com.reservaja.exception.ServiceUnavailableException;
+import com.reservaja.model.entity.Reservation;
+import com.reservaja.model.entity.Room;
+import com.reservaja.model.entity.User;
+import com.reservaja.repository.ReservationRepository;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.repository.UserRepository;
+import com.reservaja.repository.projection.ReservationSummary;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.hold.Hold;
+import com.reservaja.service.hold.HoldRegistry;
+import com.reservaja.service.series.SeriesIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Toda gravação de reserva (pedidos avulsos, lotes, confirmação de bloqueio) e a criação de
+ * bloqueios rodam na raia da sala em {@link BookingLanes}, então as checagens contra os índices
+ * em memória e os bloqueios provisórios não disputam com outra escrita da sala no mesmo nó.
+ * Entre nós, reservas se excluem pela exclusion constraint e séries pela versão que cada INSERT
+ * leva ({@link #withCurrentSeries}); nenhuma delas trava a sala no banco.
+ */
+@Service
+public class ReservationService {
+
+    public static final String OVERLAP_MESSAGE = "Sala já reservada neste horário";
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 100;
+    // séries novas na sala entre a checagem e o INSERT: recarrega e tenta de novo até este limite
+    private static final int MAX_SERIES_ATTEMPTS = 3;
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final RoomCalendarIndex calendarIndex;
+    private final SeriesIndex seriesIndex;
+    private final HoldRegistry holds;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadYourWritesTracker readYourWrites;
+    private final TransactionTemplate transaction;
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              RoomRepository roomRepository,
+                              UserRepository userRepository,
+                              RoomCalendarIndex calendarIndex,
+                              SeriesIndex seriesIndex,
+                              HoldRegistry holds,
+                              ApplicationEventPublisher eventPublisher,
+                              ReadYourWritesTracker readYourWrites,
+                              PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.calendarIndex = calendarIndex;
+        this.seriesIndex = seriesIndex;
+        this.holds = holds;
+        this.eventPublisher = eventPublisher;
+        this.readYourWrites = readYourWrites;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Cria a reserva com um único INSERT, sem SELECT antes nem trava na sala: os índices em
+     * memória rejeitam conflitos conhecidos sem ir ao banco e a exclusion constraint do
+     * PostgreSQL resolve as corridas entre reservas. Séries recorrentes vêm do
+     * {@link SeriesIndex}, cuja versão o trigger do INSERT confere (só uma série nova na sala
+     * desde a checagem faz a escrita se repetir); bloqueios provisórios de outros usuários,
+     * do {@link HoldRegistry}.
+     */
+    public Reservation create(Long userId, ReservationRequest request) {
+        validateBooking(request.getStartTime(), request.getEndTime());
+        return withCurrentSeries(List.of(request.getRoomId()), () -> insert(userId, request));
+    }
+
+    private Reservation insert(Long userId, ReservationRequest request) {
+        if (calendarIndex.covers(request.getStartTime())
+                && !calendarIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime())) {
+            throw new ConflictException(OVERLAP_MESSAGE);
+        }
+        long seriesVersion = seriesIndex.version(request.getRoomId());
+        if (!seriesIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime())
+                || !holds.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime(), userId)) {
+            throw new ConflictException(OVERLAP_MESSAGE);
+        }
+
+        Reservation saved;
+        try {
+            saved = reservationRepository.saveAndFlush(Reservation.builder()
+                    .user(userRepository.getReferenceById(userId))
+                    .room(roomRepository.getReferenceById(request.getRoomId()))
+                    .startTime(request.getStartTime())
+                    .endTime(request.getEndTime())
+                    .seriesVersion(seriesVersion)
+                    .build());
+        } catch (DataIntegrityViolationException ex) {
+            if (DataIntegrityErrors.isOverlapViolation(ex)) {
+                throw new ConflictException(OVERLAP_MESSAGE);
+            }
+            if (DataIntegrityErrors.FOREIGN_KEY_VIOLATION.equals(DataIntegrityErrors.sqlState(ex))) {
+                throw new ResourceNotFoundException("Sala não encontrada: " + request.getRoomId());
+            }
+            throw ex;
+        }
+
+        eventPublisher.publishEvent(ReservationChangedEvent.created(
+            saved.getId(), request.getRoomId(), saved.getStartTime(), saved.getEndTime()));
+        // a listagem seguinte do usuário lê do primário, e não de uma réplica atrasada
+        readYourWrites.markWrite(userId);
+
+        return saved;
+    }
+
+    /**
+     * Processa em uma única transação os pedidos acumulados em uma raia de {@link BookingLanes}.
+     * Perdedores (sobreposição com o índice ou com outro pedido do mesmo lote) recebem
+     * {@link ConflictException} sem abortar o lote; uma violação da exclusion constraint
+     * (corrida com outro nó), ou uma série que o índice ainda não tem, aborta a transação e o
+     * chamador reprocessa individualmente.
+     */
+    @Transactional
+    public List<BookingResult> createAll(List<BookingCommand> commands) {
+        List<BookingResult> results = new ArrayList<>(commands.size());
+        List<Reservation> accepted = new ArrayList<>();
+
+        for (BookingCommand command : commands) {
+            ReservationRequest request = command.request();
+            try {
+                validateBooking(request.getStartTime(), request.getEndTime());
+            } catch (BadRequestException ex) {
+                results.add(BookingResult.failure(ex));
+                continue;
+            }
+
+            long seriesVersion = seriesIndex.version(request.getRoomId());
+            boolean conflict = (calendarIndex.covers(request.getStartTime())
+                    && !calendarIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime()))
+                    || !seriesIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime())
+                    || !holds.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime(), command.userId())
+                    || accepted.stream().anyMatch(other -> overlaps(other, request));
+            if (conflict) {
+                results.add(BookingResult.failure(new ConflictException(OVERLAP_MESSAGE)));
+                continue;
+            }
+
+            Reservation reservation = Reservation.builder()
+                    .user(userRepository.getReferenceById(command.userId()))
+                    .room(roomRepository.getReferenceById(request.getRoomId()))
+                    .startTime(request.getStartTime())
+                    .endTime(request.getEndTime())
+                    .seriesVersion(seriesVersion)
+                    .build();
+            accepted.add(reservation);
+            results.add(BookingResult.success(reservation));
+        }
+
+        reservationRepository.saveAllAndFlush(accepted);
+
+        for (Reservation saved : accepted) {
+            eventPublisher.publishEvent(ReservationChangedEvent.created(
+                saved.getId(), saved.getRoom().getId(), saved.getStartTime(), saved.getEndTime()));
+            readYourWrites.markWrite(saved.getUser().getId());
+        }
+
+        return results;
+    }
+
+    /**
+     * Reserva várias salas e horários de uma vez, tudo ou nada, com as raias de todas as salas
+     * do lote paradas ({@link BookingLanes}). Os conflitos do lote inteiro são verificados antes
+     * de gravar: pelo índice em memória, entre os próprios itens e, para janelas fora do índice,
+     * em um único SELECT. Os INSERTs saem em lote (ids da sequência em blocos); uma violação da
+     * exclusion constraint desfaz o lote todo.
+     */
+    public List<Reservation> createBatch(Long userId, List<ReservationRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("O lote deve ter entre 1 e " + MAX_BATCH_SIZE + " reservas");
+        }
+        return withCurrentSeries(requests.stream().map(ReservationRequest::getRoomId).toList(),
+                () -> insertBatch(userId, requests));
+    }
+
+    private List<Reservation> insertBatch(Long userId, List<ReservationRequest> requests) {
+        // salas pelo cache de segundo nível: sala inexistente vira 404 antes de qualquer INSERT
+        Map<Long, Room> rooms = roomRepository.findAllByIdCached(
+                requests.stream().map(ReservationRequest::getRoomId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        User user = userRepository.getReferenceById(userId);
+
+        List<Reservation> candidates = new ArrayList<>(requests.size());
+        List<Reservation> outsideIndex = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequest request = requests.get(i);
+            validateBooking(request.getStartTime(), request.getEndTime());
+
+            Room room = rooms.get(request.getRoomId());
+            if (room == null) {
+                throw new ResourceNotFoundException("Sala não encontrada: " + request.getRoomId());
+            }
+            boolean indexed = calendarIndex.covers(request.getStartTime());
+            long seriesVersion = seriesIndex.version(request.getRoomId());
+            if ((indexed && !calendarIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime()))
+                    || !seriesIndex.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime())
+                    || !holds.isFree(request.getRoomId(), request.getStartTime(), request.getEndTime(), userId)
+                    || candidates.stream().anyMatch(other -> overlaps(other, request))) {
+                throw batchConflict(i);
+            }
+
+            Reservation reservation = Reservation.builder()
+                    .user(user)
+                    .room(room)
+                    .startTime(request.getStartTime())
+                    .endTime(request.getEndTime())
+                    .seriesVersion(seriesVersion)
+                    .build();
+            candidates.add(reservation);
+            if (!indexed) {
+                outsideIndex.add(reservation);
+            }
+        }
+
+        List<Reservation> existing = reservationRepository.findOverlappingAny(outsideIndex);
+        if (!existing.isEmpty()) {
+            Reservation first = existing.get(0);
+            for (int i = 0; i < candidates.size(); i++) {
+                if (overlaps(first, candidates.get(i))) {
+                    throw batchConflict(i);
+                }
+            }
+            throw new ConflictException(OVERLAP_MESSAGE);
+        }
+
+        try {
+            reservationRepository.saveAllAndFlush(candidates);
+        } catch (DataIntegrityViolationException ex) {
+            if (DataIntegrityErrors.isOverlapViolation(ex)) {
+                throw new ConflictException(OVERLAP_MESSAGE);
+            }
+            throw ex;
+        }
+
+        for (Reservation saved : candidates) {
+            eventPublisher.publishEvent(ReservationChangedEvent.created(
+                saved.getId(), saved.getRoom().getId(), saved.getStartTime(), saved.getEndTime()));
+        }
+        readYourWrites.markWrite(userId);
+
+        return candidates;
+    }
+
+    /**
+     * Mesmas checagens de {@link #create}, sem gravar: sala existente, janela válida e horário
+     * livre de reservas, séries e bloqueios de outros usuários. Usado antes de criar um bloqueio.
+     */
+    @Transactional(readOnly = true)
+    public void checkBookable(Long userId, Long roomId, LocalDateTime start, LocalDateTime end) {
+        validateBooking(start, end);
+        Room room = roomRepository.findById(roomId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Sala não encontrada: " + roomId));
+
+        boolean reserved = calendarIndex.covers(start)
+                ? !calendarIndex.isFree(roomId, start, end)
+                : !reservationRepository.findOverlapping(room, start, end).isEmpty();
+        if (reserved || !seriesIndex.isFree(roomId, start, end) || !holds.isFree(roomId, start, end, userId)) {
+            throw new ConflictException(OVERLAP_MESSAGE);
+        }
+    }
+
+    @Transactional
+    public void cancel(Long reservationId, UserPrincipal principal) {
+        Reservation reservation = reservationRepository.findById(reservationId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Reserva não encontrada: " + reservationId));
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                        .anyMatch(authority -> User.Role.ROLE_ADMIN.name().equals(authority.getAuthority()));
+
+        if (!isAdmin && !reservation.getUser().getId().equals(principal.getId())) {
+            throw new AccessDeniedException("Reserva pertence a outro usuário");
+        }
+
+        reservationRepository.delete(reservation);
+
+        eventPublisher.publishEvent(ReservationChangedEvent.deleted(
+            reservation.getId(), reservation.getRoom().getId(), reservation.getStartTime(), reservation.getEndTime()));
+        readYourWrites.markWrite(principal.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public ReservationPageResponse listForUser(Long userId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Tamanho de página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        // busca um item a mais só para saber se existe próxima página
+        Limit limit = Limit.of(size + 1);
+        List<ReservationSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reservationRepository.findPageByUser(userId, limit);
+        } else {
+            ReservationCursor after = ReservationCursor.decode(cursor);
+            rows = reservationRepository.findPageByUserAfter(userId, after.startTime(), after.id(), limit);
+        }
+
+        if (rows.size() <= size) {
+            return new ReservationPageResponse(rows, null);
+        }
+
+        List<ReservationSummary> page = rows.subList(0, size);
+        ReservationSummary last = page.get(size - 1);
+        return new ReservationPageResponse(page, new ReservationCursor(last.startTime(), last.id()).encode());
+    }
+
+    @Transactional(readOnly = true)
+    public SlotAvailabilityResponse checkSlot(Long roomId, LocalDateTime from, LocalDateTime to) {
+        validateWindow(from, to);
+
+        List<Long> overlapping;
+        if (calendarIndex.covers(from)) {
+            overlapping = Arrays.stream(calendarIndex.findOverlapping(roomId, from, to)).boxed().toList();
+        } else {
+            Room room = roomRepository.findById(roomId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Sala não encontrada: " + roomId));
+            overlapping = reservationRepository.findOverlapping(room, from, to)
+                            .stream()
+                            .map(Reservation::getId)
+                            .toList();
+        }
+
+        List<Long> overlappingSeries = seriesIndex.overlappingSeries(roomId, from, to).stream()
+                .map(SeriesIndex.Entry::seriesId)
+                .toList();
+
+        List<String> overlappingHolds = holds.overlapping(roomId, from, to, null).stream()
+                .map(Hold::id)
+                .toList();
+
+        boolean free = overlapping.isEmpty() && overlappingSeries.isEmpty() && overlappingHolds.isEmpty();
+        return new SlotAvailabilityResponse(roomId, from, to, free, overlapping, overlappingSeries, overlappingHolds);
+    }
+
+    // a escrita roda em uma transação própria; se o banco rejeitou a versão das séries de uma
+    // sala (série criada depois da checagem, ex.: em outro nó), o índice relê essas salas e a
+    // escrita inteira é refeita, de volta às checagens
+    private <T> T withCurrentSeries(Collection<Long> roomIds, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> write.get());
+            } catch (DataIntegrityViolationException ex) {
+                if (!DataIntegrityErrors.isStaleSeriesVersion(ex)) {
+                    throw ex;
+                }
+                if (attempt == MAX_SERIES_ATTEMPTS) {
+                    throw new ServiceUnavailableException("Séries da sala em alteração, tente novamente");
+                }
+                seriesIndex.refresh(roomIds);
+            }
+        }
+    }
+
+    private static ConflictException batchConflict(int index) {
+        return new ConflictException(OVERLAP_MESSAGE + " (item " + (index + 1) + " do lote)");
+    }
+
+    private static boolean overlaps(Reservation reservation, Reservation other) {
+        return reservation.getRoom().getId().equals(other.getRoom().getId())
+                && reservation.getStartTime().isBefore(other.getEndTime())
+                && reservation.getEndTime().isAfter(other.getStartTime());
+    }
+
+    private static boolean overlaps(Reservation reservation, ReservationRequest request) {
+        return reservation.getRoom().getId().equals(request.getRoomId())
+                && reservation.getStartTime().isBefore(request.getEndTime())
+                && reservation.getEndTime().isAfter(request.getStartTime());
+    }
+
+    // janela válida e dentro da duração máxima, da qual depende a poda das partições mensais
+    private void validateBooking(LocalDateTime start, LocalDateTime end) {
+        validateWindow(start, end);
+        if (Duration.between(start, end).compareTo(Reservation.MAX_DURATION) > 0) {
+            throw new BadRequestException("Reserva não pode exceder " + Reservation.MAX_DURATION.toHours() + " horas");
+        }
+    }
+
+    private void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new BadRequestException("Horário inicial deve ser anterior ao horário final");
+        }
+    }
+}
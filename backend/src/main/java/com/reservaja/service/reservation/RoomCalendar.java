@@ -0,0 +1,140 @@
+package com.reservaja.service.reservation;
+
+import java.util.Arrays;
+
+/**
+ * Calendário imutável de uma sala: arrays primitivos ordenados por início (em minutos desde a epoch).
+ * {@code maxEnds[i]} guarda o maior fim entre as posições 0..i, o que permite parar a varredura
+ * assim que nenhum intervalo anterior possa mais sobrepor a janela consultada.
+ */
+final class RoomCalendar {
+
+    static final RoomCalendar EMPTY = new RoomCalendar(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private RoomCalendar(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static RoomCalendar of(long[] ids, long[] starts, long[] ends) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> starts[a] != starts[b]
+                ? Long.compare(starts[a], starts[b])
+                : Long.compare(ids[a], ids[b]));
+
+        long[] sortedIds = new long[ids.length];
+        long[] sortedStarts = new long[ids.length];
+        long[] sortedEnds = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedIds[i] = ids[order[i]];
+            sortedStarts[i] = starts[order[i]];
+            sortedEnds[i] = ends[order[i]];
+        }
+        return new RoomCalendar(sortedIds, sortedStarts, sortedEnds);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean isFree(long start, long end) {
+        return !anyOverlap(firstStartAtOrAfter(end) - 1, start);
+    }
+
+    long[] overlapping(long start, long end) {
+        long[] found = new long[8];
+        int count = 0;
+        for (int i = firstStartAtOrAfter(end) - 1; i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    void forEach(RoomCalendarIndex.IntervalConsumer consumer, long roomId) {
+        for (int i = 0; i < ids.length; i++) {
+            consumer.accept(roomId, ids[i], starts[i], ends[i]);
+        }
+    }
+
+    RoomCalendar with(long id, long start, long end) {
+        RoomCalendar base = without(id);
+        int n = base.ids.length;
+        int pos = base.firstStartAtOrAfter(start);
+        while (pos < n && base.starts[pos] == start && base.ids[pos] < id) {
+            pos++;
+        }
+        return new RoomCalendar(
+            insert(base.ids, pos, id),
+            insert(base.starts, pos, start),
+            insert(base.ends, pos, end)
+        );
+    }
+
+    RoomCalendar without(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return new RoomCalendar(remove(ids, i), remove(starts, i), remove(ends, i));
+            }
+        }
+        return this;
+    }
+
+    private boolean anyOverlap(int from, long start) {
+        for (int i = from; i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // índice do primeiro início >= value (busca binária)
+    private int firstStartAtOrAfter(long value) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long[] insert(long[] source, int pos, long value) {
+        long[] target = new long[source.length + 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        target[pos] = value;
+        System.arraycopy(source, pos, target, pos + 1, source.length - pos);
+        return target;
+    }
+
+    private static long[] remove(long[] source, int pos) {
+        long[] target = new long[source.length - 1];
+        System.arraycopy(source, 0, target, 0, pos);
+        System.arraycopy(source, pos + 1, target, pos, source.length - pos - 1);
+        return target;
+    }
+}
@@ -0,0 +1,210 @@
+package com.reservaja.service.reservation;
+
+import com.reservaja.config.datasource.ReplicaRouting;
+import com.reservaja.repository.ReservationRepository;
+import com.reservaja.repository.projection.ReservationSlot;
+import com.reservaja.service.room.RoomChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória das reservas de cada sala, usado para responder "o horário está livre?"
+ * sem ir ao banco. O banco continua sendo a fonte da verdade: o índice é carregado na subida
+ * da aplicação e atualizado após o commit de cada reserva criada ou removida.
+ *
+ * Só são indexadas reservas que terminam depois do horizonte ({@code app.booking.index-horizon-days}
+ * antes da carga); consultas anteriores a ele devem ir ao banco (ver {@link #covers}).
+ *
+ * A recarga (na subida e nas ressincronizações da coerência entre nós) monta um mapa novo e
+ * o publica de uma vez; leituras sem lock veem o mapa anterior ou o novo, nunca um vazio.
+ */
+@Component
+public class RoomCalendarIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCalendarIndex.class);
+
+    private final ReservationRepository reservationRepository;
+    private volatile ConcurrentHashMap<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+
+    // mutações por sala usam o read lock (concorrentes entre si); a recarga completa usa o write lock
+    private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    @Value("${app.booking.index-horizon-days:1}")
+    private int horizonDays;
+
+    private volatile boolean ready;
+    private volatile long indexedFrom = Long.MAX_VALUE;
+
+    public RoomCalendarIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    // recebe (sala, reserva, início, fim) em minutos desde a epoch
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        void accept(long roomId, long reservationId, long startMinute, long endMinute);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    // ordem 0: outros índices que consultam este (ex.: RoomOccupancyIndex) rodam depois
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.reservationId(), event.roomId(), event.startTime(), event.endTime());
+            case DELETED -> remove(event.reservationId(), event.roomId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.type() != RoomChangedEvent.Type.DELETED) {
+            return;
+        }
+        reloadLock.readLock().lock();
+        try {
+            calendars.remove(event.roomId());
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now().minusDays(horizonDays);
+
+        reloadLock.writeLock().lock();
+        try {
+            // sempre do primário: o índice não pode partir de uma réplica atrasada
+            List<ReservationSlot> slots = ReplicaRouting.onPrimary(() -> reservationRepository.findSlotsEndingAfter(since));
+
+            Map<Long, LongColumns> byRoom = new HashMap<>();
+            for (ReservationSlot slot : slots) {
+                byRoom.computeIfAbsent(slot.getRoomId(), id -> new LongColumns())
+                      .add(slot.getId(), toStartMinute(slot.getStartTime()), toEndMinute(slot.getEndTime()));
+            }
+
+            ConcurrentHashMap<Long, RoomCalendar> loaded = new ConcurrentHashMap<>();
+            byRoom.forEach((roomId, columns) -> loaded.put(roomId, columns.toCalendar()));
+            // horizonte antes do mapa: até a troca, o mapa anterior (de horizonte mais antigo) cobre o novo
+            indexedFrom = toStartMinute(since);
+            calendars = loaded;
+            ready = true;
+
+            log.info("Índice de calendário carregado: {} reservas em {} salas", slots.size(), byRoom.size());
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // true se a janela está inteiramente dentro do período indexado
+    public boolean covers(LocalDateTime start) {
+        return ready && toStartMinute(start) >= indexedFrom;
+    }
+
+    public boolean isFree(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return calendars.getOrDefault(roomId, RoomCalendar.EMPTY)
+                        .isFree(toStartMinute(start), toEndMinute(end));
+    }
+
+    public boolean isFree(long roomId, long startMinute, long endMinute) {
+        return calendars.getOrDefault(roomId, RoomCalendar.EMPTY).isFree(startMinute, endMinute);
+    }
+
+    public void forEach(IntervalConsumer consumer) {
+        calendars.forEach((roomId, calendar) -> calendar.forEach(consumer, roomId));
+    }
+
+    public long[] findOverlapping(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return calendars.getOrDefault(roomId, RoomCalendar.EMPTY)
+                        .overlapping(toStartMinute(start), toEndMinute(end));
+    }
+
+    public void add(Long reservationId, Long roomId, LocalDateTime start, LocalDateTime end) {
+        long startMinute = toStartMinute(start);
+        long endMinute = toEndMinute(end);
+
+        reloadLock.readLock().lock();
+        try {
+            calendars.compute(roomId, (id, calendar) ->
+                (calendar == null ? RoomCalendar.EMPTY : calendar).with(reservationId, startMinute, endMinute));
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long reservationId, Long roomId) {
+        reloadLock.readLock().lock();
+        try {
+            calendars.computeIfPresent(roomId, (id, calendar) -> {
+                RoomCalendar updated = calendar.without(reservationId);
+                return updated.size() == 0 ? null : updated;
+            });
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    // início arredondado para baixo e fim para cima: o índice nunca declara livre um minuto ocupado
+    public static long toStartMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    public static long toEndMinute(LocalDateTime time) {
+        long seconds = time.toEpochSecond(ZoneOffset.UTC);
+        long minute = Math.floorDiv(seconds, 60);
+        return (seconds % 60 != 0 || time.getNano() != 0) ? minute + 1 : minute;
+    }
+
+    private static final class LongColumns {
+        private long[] ids = new long[4];
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private int size;
+
+        void add(long id, long start, long end) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ids[size] = id;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        RoomCalendar toCalendar() {
+            return RoomCalendar.of(
+                Arrays.copyOf(ids, size),
+                Arrays.copyOf(starts, size),
+                Arrays.copyOf(ends, size)
+            );
+        }
+    }
+}
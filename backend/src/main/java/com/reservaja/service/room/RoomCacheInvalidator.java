@@ -0,0 +1,34 @@
+package com.reservaja.service.room;
+
+import com.reservaja.model.entity.Room;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Remove a sala alterada do cache de segundo nível e descarta as listagens em cache após o
+ * commit de POST/PUT/DELETE em /api/rooms. Na própria sessão o Hibernate já atualiza o cache;
+ * a remoção explícita cobre o evento vindo de outro nó e alterações feitas fora do Hibernate.
+ */
+@Component
+public class RoomCacheInvalidator {
+
+    private final Cache cache;
+
+    public RoomCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        cache.evictEntityData(Room.class, event.roomId());
+        cache.evictDefaultQueryRegion();
+    }
+
+    public void evictAll() {
+        cache.evictEntityData(Room.class);
+        cache.evictDefaultQueryRegion();
+    }
+}
@@ -0,0 +1,13 @@
+package com.reservaja.service.room;
+
+/**
+ * Publicado pelo {@link RoomService} quando uma sala é criada, alterada ou removida.
+ */
+public record RoomChangedEvent(Type type, Long roomId, Integer capacity) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,322 @@
+package com.reservaja.service.room;
+
+import com.reservaja.config.datasource.ReplicaRouting;
+import com.reservaja.model.entity.Room;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.service.reservation.ReservationChangedEvent;
+import com.reservaja.service.reservation.RoomCalendarIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ocupação por dia em slots de tamanho fixo ({@code app.availability.slot-minutes}).
+ * Para cada slot do dia há um bitset das salas ocupadas (uma posição por sala), de modo
+ * que "quais salas estão livres em todos estes slots" é um AND NOT sucessivo sobre
+ * o conjunto de salas ativas, sem consultar o banco.
+ *
+ * Slots cobertos só parcialmente pela janela consultada são conferidos no
+ * {@link RoomCalendarIndex}, que tem a precisão de minutos.
+ *
+ * A recarga monta um mapa de dias novo e o publica de uma vez: buscas concorrentes leem o
+ * mapa anterior ou o novo, nunca um pela metade. As posições das salas não mudam entre
+ * recargas, então bitsets de um mapa valem com qualquer versão do catálogo.
+ */
+@Component
+public class RoomOccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomOccupancyIndex.class);
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final RoomRepository roomRepository;
+    private final RoomCalendarIndex calendarIndex;
+
+    // trocado inteiro na recarga; mutações (read lock) sempre veem o mapa publicado
+    private volatile ConcurrentHashMap<Long, DayOccupancy> days = new ConcurrentHashMap<>();
+    private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    private final int slotMinutes;
+    private final int slotsPerDay;
+
+    // catálogo de salas com posições densas; substituído inteiro a cada alteração (copy-on-write)
+    private volatile Catalog catalog = Catalog.EMPTY;
+
+    public RoomOccupancyIndex(RoomRepository roomRepository,
+                              RoomCalendarIndex calendarIndex,
+                              @Value("${app.availability.slot-minutes:15}") int slotMinutes) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("app.availability.slot-minutes deve dividir 1440: " + slotMinutes);
+        }
+        this.roomRepository = roomRepository;
+        this.calendarIndex = calendarIndex;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    public void reload() {
+        reloadLock.writeLock().lock();
+        try {
+            // parte das posições atuais: salas novas entram no fim, removidas ficam inativas
+            Catalog loaded = catalog.deactivated();
+            for (Room room : ReplicaRouting.onPrimary(roomRepository::findAll)) {
+                loaded = loaded.with(room.getId(), room.getCapacity());
+            }
+            catalog = loaded;
+
+            ConcurrentHashMap<Long, DayOccupancy> fresh = new ConcurrentHashMap<>();
+            calendarIndex.forEach((roomId, reservationId, start, end) -> mark(fresh, roomId, start, end));
+            days = fresh;
+
+            log.info("Índice de ocupação carregado: {} salas, {} dias", loaded.size(), fresh.size());
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        long start = RoomCalendarIndex.toStartMinute(event.startTime());
+        long end = RoomCalendarIndex.toEndMinute(event.endTime());
+
+        reloadLock.readLock().lock();
+        try {
+            switch (event.type()) {
+                case CREATED -> mark(days, event.roomId(), start, end);
+                case DELETED -> unmark(days, event.roomId(), start, end);
+            }
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(10)
+    public void onRoomChanged(RoomChangedEvent event) {
+        reloadLock.readLock().lock();
+        try {
+            synchronized (this) {
+                catalog = switch (event.type()) {
+                    case CREATED, UPDATED -> catalog.with(event.roomId(), event.capacity());
+                    case DELETED -> catalog.without(event.roomId());
+                };
+            }
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    // descarta dias que já passaram
+    @Scheduled(cron = "0 5 0 * * *")
+    public void pruneExpiredDays() {
+        long today = Math.floorDiv(RoomCalendarIndex.toStartMinute(LocalDateTime.now()), MINUTES_PER_DAY);
+        reloadLock.readLock().lock();
+        try {
+            days.keySet().removeIf(day -> day < today - 1);
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids das salas com capacidade mínima totalmente livres em [from, to), em ordem de cadastro.
+     */
+    public long[] findFreeRooms(LocalDateTime from, LocalDateTime to, int minCapacity) {
+        // um único mapa de dias do começo ao fim, mesmo que uma recarga publique outro no meio
+        Map<Long, DayOccupancy> snapshot = days;
+        Catalog current = catalog;
+        long startMinute = RoomCalendarIndex.toStartMinute(from);
+        long endMinute = RoomCalendarIndex.toEndMinute(to);
+
+        BitSet candidates = current.roomsWithCapacity(minCapacity);
+        BitSet partial = new BitSet();
+
+        long firstSlot = Math.floorDiv(startMinute, slotMinutes);
+        long lastSlot = Math.floorDiv(endMinute - 1, slotMinutes);
+
+        for (long slot = firstSlot; slot <= lastSlot && !candidates.isEmpty(); slot++) {
+            DayOccupancy day = snapshot.get(Math.floorDiv(slot, slotsPerDay));
+            if (day == null) {
+                continue;
+            }
+            int slotOfDay = (int) Math.floorMod(slot, slotsPerDay);
+            boolean fullyCovered = slot * slotMinutes >= startMinute && (slot + 1) * slotMinutes <= endMinute;
+
+            synchronized (day) {
+                if (fullyCovered) {
+                    candidates.andNot(day.occupied[slotOfDay]);
+                } else {
+                    partial.or(day.occupied[slotOfDay]);
+                }
+            }
+        }
+
+        // salas marcadas só em slots de borda: confirma no calendário com precisão de minutos
+        partial.and(candidates);
+        for (int ordinal = partial.nextSetBit(0); ordinal >= 0; ordinal = partial.nextSetBit(ordinal + 1)) {
+            if (!calendarIndex.isFree(current.roomIds[ordinal], startMinute, endMinute)) {
+                candidates.clear(ordinal);
+            }
+        }
+
+        long[] roomIds = new long[candidates.cardinality()];
+        int i = 0;
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            roomIds[i++] = current.roomIds[ordinal];
+        }
+        return roomIds;
+    }
+
+    private void mark(Map<Long, DayOccupancy> target, long roomId, long startMinute, long endMinute) {
+        int ordinal = ordinalOf(roomId);
+        forEachSlot(target, startMinute, endMinute, (day, slotOfDay) -> day.occupied[slotOfDay].set(ordinal));
+    }
+
+    // outro intervalo pode ainda ocupar o mesmo slot: recalcula cada slot a partir do calendário
+    private void unmark(Map<Long, DayOccupancy> target, long roomId, long startMinute, long endMinute) {
+        Integer ordinal = catalog.ordinals.get(roomId);
+        if (ordinal == null) {
+            return;
+        }
+        forEachSlot(target, startMinute, endMinute, (day, slotOfDay) -> {
+            long slotStart = (day.epochDay * slotsPerDay + slotOfDay) * slotMinutes;
+            boolean occupied = !calendarIndex.isFree(roomId, slotStart, slotStart + slotMinutes);
+            day.occupied[slotOfDay].set(ordinal, occupied);
+        });
+    }
+
+    // salas vindas de reservas antes do evento de criação chegam ao catálogo sem capacidade conhecida
+    private int ordinalOf(long roomId) {
+        Integer ordinal = catalog.ordinals.get(roomId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (this) {
+            Catalog updated = catalog.withPlaceholder(roomId);
+            catalog = updated;
+            return updated.ordinals.get(roomId);
+        }
+    }
+
+    private void forEachSlot(Map<Long, DayOccupancy> target, long startMinute, long endMinute, SlotConsumer consumer) {
+        long firstSlot = Math.floorDiv(startMinute, slotMinutes);
+        long lastSlot = Math.floorDiv(endMinute - 1, slotMinutes);
+        for (long slot = firstSlot; slot <= lastSlot; slot++) {
+            long epochDay = Math.floorDiv(slot, slotsPerDay);
+            DayOccupancy day = target.computeIfAbsent(epochDay, d -> new DayOccupancy(d, slotsPerDay));
+            synchronized (day) {
+                consumer.accept(day, (int) Math.floorMod(slot, slotsPerDay));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotConsumer {
+        void accept(DayOccupancy day, int slotOfDay);
+    }
+
+    private static final class DayOccupancy {
+        private final long epochDay;
+        private final BitSet[] occupied;
+
+        DayOccupancy(long epochDay, int slotsPerDay) {
+            this.epochDay = epochDay;
+            this.occupied = new BitSet[slotsPerDay];
+            for (int i = 0; i < slotsPerDay; i++) {
+                occupied[i] = new BitSet();
+            }
+        }
+    }
+
+    private static final class Catalog {
+
+        static final Catalog EMPTY = new Catalog(new long[0], new int[0], new BitSet(), Map.of());
+
+        private final long[] roomIds;
+        private final int[] capacities;
+        private final BitSet active;
+        private final Map<Long, Integer> ordinals;
+
+        private Catalog(long[] roomIds, int[] capacities, BitSet active, Map<Long, Integer> ordinals) {
+            this.roomIds = roomIds;
+            this.capacities = capacities;
+            this.active = active;
+            this.ordinals = ordinals;
+        }
+
+        int size() {
+            return active.cardinality();
+        }
+
+        BitSet roomsWithCapacity(int minCapacity) {
+            BitSet result = (BitSet) active.clone();
+            if (minCapacity > 0) {
+                for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                    if (capacities[ordinal] < minCapacity) {
+                        result.clear(ordinal);
+                    }
+                }
+            }
+            return result;
+        }
+
+        Catalog with(long roomId, int capacity) {
+            Catalog base = withPlaceholder(roomId);
+            int ordinal = base.ordinals.get(roomId);
+            int[] newCapacities = base.capacities.clone();
+            newCapacities[ordinal] = capacity;
+            BitSet newActive = (BitSet) base.active.clone();
+            newActive.set(ordinal);
+            return new Catalog(base.roomIds, newCapacities, newActive, base.ordinals);
+        }
+
+        // posição reservada mas inativa até a sala ser conhecida
+        Catalog withPlaceholder(long roomId) {
+            if (ordinals.containsKey(roomId)) {
+                return this;
+            }
+            int ordinal = roomIds.length;
+            Map<Long, Integer> newOrdinals = new HashMap<>(ordinals);
+            newOrdinals.put(roomId, ordinal);
+            long[] newRoomIds = Arrays.copyOf(roomIds, ordinal + 1);
+            newRoomIds[ordinal] = roomId;
+            return new Catalog(newRoomIds, Arrays.copyOf(capacities, ordinal + 1), active, newOrdinals);
+        }
+
+        // mesmas posições, todas inativas (base da recarga)
+        Catalog deactivated() {
+            return new Catalog(roomIds, capacities, new BitSet(), ordinals);
+        }
+
+        Catalog without(long roomId) {
+            Integer ordinal = ordinals.get(roomId);
+            if (ordinal == null) {
+                return this;
+            }
+            BitSet newActive = (BitSet) active.clone();
+            newActive.clear(ordinal);
+            return new Catalog(roomIds, capacities, newActive, ordinals);
+        }
+    }
+}
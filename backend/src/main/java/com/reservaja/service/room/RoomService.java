@@ -0,0 +1,127 @@
+package com.reservaja.service.room;
+
+import com.reservaja.dto.room.RoomRequest;
+import com.reservaja.exception.BadRequestException;
+import com.reservaja.exception.ResourceNotFoundException;
+import com.reservaja.model.entity.Room;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.service.hold.HoldRegistry;
+import com.reservaja.service.reservation.RoomCalendarIndex;
+import com.reservaja.service.series.SeriesIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class RoomService {
+
+    private static final long MAX_AVAILABILITY_WINDOW_DAYS = 31;
+
+    private final RoomRepository roomRepository;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final RoomCalendarIndex calendarIndex;
+    private final SeriesIndex seriesIndex;
+    private final HoldRegistry holds;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoomService(RoomRepository roomRepository,
+                       RoomOccupancyIndex occupancyIndex,
+                       RoomCalendarIndex calendarIndex,
+                       SeriesIndex seriesIndex,
+                       HoldRegistry holds,
+                       ApplicationEventPublisher eventPublisher) {
+        this.roomRepository = roomRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.calendarIndex = calendarIndex;
+        this.seriesIndex = seriesIndex;
+        this.holds = holds;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Room> findAll() {
+        return roomRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Room findById(Long id) {
+        return roomRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Sala não encontrada: " + id));
+    }
+
+    /**
+     * Salas com capacidade mínima livres durante toda a janela [from, to).
+     * A busca roda nos índices em memória; o banco só é lido para montar a resposta.
+     */
+    @Transactional(readOnly = true)
+    public List<Room> findAvailable(LocalDateTime from, LocalDateTime to, Integer minCapacity) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Horário inicial deve ser anterior ao horário final");
+        }
+        if (Duration.between(from, to).toDays() > MAX_AVAILABILITY_WINDOW_DAYS) {
+            throw new BadRequestException("Janela de busca não pode exceder " + MAX_AVAILABILITY_WINDOW_DAYS + " dias");
+        }
+        if (!calendarIndex.covers(from)) {
+            throw new BadRequestException("Busca de disponibilidade não cobre horários passados");
+        }
+
+        long[] freeIds = occupancyIndex.findFreeRooms(from, to, minCapacity == null ? 0 : minCapacity);
+        if (freeIds.length == 0) {
+            return List.of();
+        }
+
+        // séries e bloqueios provisórios não entram no índice de ocupação: testados só na janela
+        List<Long> ids = Arrays.stream(freeIds).boxed()
+                .filter(roomId -> seriesIndex.isFree(roomId, from, to) && holds.isFree(roomId, from, to, null))
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Room> byId = roomRepository.findAllByIdCached(ids).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    @Transactional
+    public Room create(RoomRequest request) {
+        Room saved = roomRepository.saveAndFlush(Room.builder()
+                .name(request.getName())
+                .capacity(request.getCapacity())
+                .description(request.getDescription())
+                .build());
+
+        eventPublisher.publishEvent(new RoomChangedEvent(RoomChangedEvent.Type.CREATED, saved.getId(), saved.getCapacity()));
+        return saved;
+    }
+
+    @Transactional
+    public Room update(Long id, RoomRequest request) {
+        Room room = findById(id);
+        room.setName(request.getName());
+        room.setCapacity(request.getCapacity());
+        room.setDescription(request.getDescription());
+
+        Room saved = roomRepository.saveAndFlush(room);
+
+        eventPublisher.publishEvent(new RoomChangedEvent(RoomChangedEvent.Type.UPDATED, saved.getId(), saved.getCapacity()));
+        return saved;
+    }
+
+    @Transactional
+    public void delete(Long id) {
+        Room room = findById(id);
+        roomRepository.delete(room);
+
+        eventPublisher.publishEvent(new RoomChangedEvent(RoomChangedEvent.Type.DELETED, id, room.getCapacity()));
+    }
+}
@@ -0,0 +1,97 @@
+package com.reservaja.service.series;
+
+import com.reservaja.model.entity.ReservationSeries;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Regra de recorrência imutável. As ocorrências são geradas só dentro da janela pedida:
+ * o índice da primeira candidata é calculado direto (dias ou meses desde a primeira ocorrência),
+ * então testar uma janela custa O(1) independente de quantos anos a série cobre.
+ */
+public record Recurrence(ReservationSeries.Frequency frequency,
+                         int interval,
+                         LocalDateTime firstStart,
+                         Duration duration,
+                         LocalDate until,
+                         Set<LocalDate> exceptions) {
+
+    public static Recurrence of(ReservationSeries series) {
+        return new Recurrence(series.getFrequency(), series.getInterval(), series.getFirstStart(),
+                Duration.ofMinutes(series.getDurationMinutes()), series.getUntil(), Set.copyOf(series.getExceptions()));
+    }
+
+    // fim exclusivo da última ocorrência possível
+    public LocalDateTime lastEnd() {
+        return until.atTime(firstStart.toLocalTime()).plus(duration);
+    }
+
+    // inícios das ocorrências que sobrepõem [from, to), em ordem
+    public List<LocalDateTime> startsOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        scan(from, to, start -> {
+            starts.add(start);
+            return false;
+        });
+        return starts;
+    }
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        return scan(from, to, start -> true);
+    }
+
+    // todos os inícios, do primeiro ao último; o visitante devolve true para parar
+    public boolean anyStart(Predicate<LocalDateTime> visitor) {
+        return scan(firstStart, lastEnd(), visitor);
+    }
+
+    private boolean scan(LocalDateTime from, LocalDateTime to, Predicate<LocalDateTime> visitor) {
+        if (!from.isBefore(to) || !to.isAfter(firstStart)) {
+            return false;
+        }
+        // uma ocorrência sobrepõe a janela se começa antes de "to" e termina depois de "from"
+        LocalDateTime earliestStart = from.minus(duration);
+        for (long k = firstIndex(earliestStart); ; k++) {
+            LocalDateTime start = start(k);
+            if (start == null) {
+                continue;
+            }
+            if (!start.isBefore(to) || start.toLocalDate().isAfter(until)) {
+                return false;
+            }
+            if (start.isAfter(earliestStart) && !exceptions.contains(start.toLocalDate()) && visitor.test(start)) {
+                return true;
+            }
+        }
+    }
+
+    // índice a partir do qual vale a pena testar (um passo antes, pelos arredondamentos)
+    private long firstIndex(LocalDateTime earliestStart) {
+        if (!earliestStart.isAfter(firstStart)) {
+            return 0;
+        }
+        long elapsed = frequency == ReservationSeries.Frequency.MONTHLY
+                ? ChronoUnit.MONTHS.between(firstStart, earliestStart)
+                : ChronoUnit.DAYS.between(firstStart, earliestStart) / (frequency == ReservationSeries.Frequency.WEEKLY ? 7 : 1);
+        return Math.max(0, elapsed / interval - 1);
+    }
+
+    // início da k-ésima ocorrência, ou null se o mês não tem o dia da primeira
+    private LocalDateTime start(long k) {
+        return switch (frequency) {
+            case DAILY -> firstStart.plusDays(k * interval);
+            case WEEKLY -> firstStart.plusWeeks(k * interval);
+            case MONTHLY -> {
+                LocalDateTime start = firstStart.plusMonths(k * interval);
+                yield start.getDayOfMonth() == firstStart.getDayOfMonth() ? start : null;
+            }
+        };
+    }
+}
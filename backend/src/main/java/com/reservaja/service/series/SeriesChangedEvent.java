@@ -0,0 +1,14 @@
+package com.reservaja.service.series;
+
+/**
+ * Publicado pelo {@link SeriesService} quando uma série é criada, alterada (ocorrência
+ * cancelada) ou removida.
+ */
+public record SeriesChangedEvent(Type type, Long seriesId, Long roomId) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
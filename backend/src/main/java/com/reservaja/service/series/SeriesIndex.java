@@ -0,0 +1,221 @@
+package com.reservaja.service.series;
+
+import com.reservaja.config.datasource.ReplicaRouting;
+import com.reservaja.model.entity.ReservationSeries;
+import com.reservaja.repository.ReservationSeriesRepository;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.repository.projection.RoomSeriesVersion;
+import com.reservaja.service.UserChangedEvent;
+import com.reservaja.service.room.RoomChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Regras das séries ainda ativas de cada sala, em memória, para que a checagem de conflito
+ * de uma reserva avulsa não precise ir ao banco nem expandir ocorrências: cada regra responde
+ * "alguma ocorrência sobrepõe [início, fim)?" calculando só as candidatas da janela.
+ *
+ * Antes da carga (ou para datas já encerradas) as consultas vão ao banco. A recarga
+ * (na subida e nas ressincronizações da coerência entre nós) monta um mapa novo e o publica
+ * de uma vez, como em {@code RoomCalendarIndex}.
+ *
+ * Cada sala guarda também a versão das suas séries ({@code rooms.series_version}, migration V6),
+ * lida do banco antes delas. A reserva leva no INSERT a versão lida antes de {@link #isFree}; se
+ * outra série foi criada na sala (por este ou outro nó) e o índice ainda não a tem, o banco
+ * rejeita o INSERT e quem grava chama {@link #refresh}. A versão de uma sala só avança.
+ */
+@Component
+public class SeriesIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SeriesIndex.class);
+
+    public record Entry(Long seriesId, Long roomId, Long userId, Recurrence rule) {
+
+        static Entry of(ReservationSeries series) {
+            return new Entry(series.getId(), series.getRoom().getId(), series.getUser().getId(), Recurrence.of(series));
+        }
+    }
+
+    // séries da sala e a versão lida antes delas: as séries são no mínimo tão novas quanto a versão
+    private record RoomSeries(long version, List<Entry> entries) {
+
+        RoomSeries withEntries(List<Entry> updated) {
+            return new RoomSeries(version, updated);
+        }
+    }
+
+    private final ReservationSeriesRepository seriesRepository;
+    private final RoomRepository roomRepository;
+    // valores imutáveis, trocados inteiros a cada alteração; o mapa é trocado inteiro na recarga
+    private volatile ConcurrentHashMap<Long, RoomSeries> byRoom = new ConcurrentHashMap<>();
+
+    // alterações por sala usam o read lock; a recarga usa o write lock para não perder nenhuma
+    private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    public SeriesIndex(ReservationSeriesRepository seriesRepository, RoomRepository roomRepository) {
+        this.seriesRepository = seriesRepository;
+        this.roomRepository = roomRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        if (event.type() == SeriesChangedEvent.Type.DELETED) {
+            remove(event.roomId(), event.seriesId());
+            return;
+        }
+        // regras completas (com exceções) e versão vêm do primário; o evento só diz qual sala mudou
+        refresh(List.of(event.roomId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onRoomChanged(RoomChangedEvent event) {
+        if (event.type() == RoomChangedEvent.Type.DELETED) {
+            underReadLock(() -> byRoom.remove(event.roomId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            underReadLock(() -> byRoom.replaceAll((roomId, room) -> room.withEntries(room.entries().stream()
+                    .filter(entry -> !entry.userId().equals(event.userId()))
+                    .toList())));
+        }
+    }
+
+    public void reload() {
+        reloadLock.writeLock().lock();
+        try {
+            // versões antes das séries: uma série criada entre as duas leituras só deixa a
+            // versão para trás, e o próximo INSERT da sala força um refresh
+            Map<Long, Long> versions = versionsOf(ReplicaRouting.onPrimary(roomRepository::findChangedSeriesVersions));
+            List<ReservationSeries> active = ReplicaRouting.onPrimary(
+                    () -> seriesRepository.findActiveSince(LocalDate.now().minusDays(2)));
+
+            Map<Long, List<Entry>> grouped = group(active);
+            ConcurrentHashMap<Long, RoomSeries> loaded = new ConcurrentHashMap<>();
+            grouped.forEach((roomId, entries) ->
+                    loaded.put(roomId, new RoomSeries(versions.getOrDefault(roomId, 0L), entries)));
+            versions.forEach((roomId, version) -> loaded.putIfAbsent(roomId, new RoomSeries(version, List.of())));
+            byRoom = loaded;
+            ready = true;
+
+            log.info("Índice de séries carregado: {} séries em {} salas", active.size(), grouped.size());
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega do primário versão e séries ativas das salas, quando o INSERT de uma reserva
+     * encontrou a versão do banco à frente da do índice. Uma leitura mais velha que o estado
+     * atual da sala (refresh concorrente) é descartada.
+     */
+    public void refresh(Collection<Long> roomIds) {
+        List<Long> ids = roomIds.stream().distinct().toList();
+        Map<Long, Long> versions = versionsOf(ReplicaRouting.onPrimary(() -> roomRepository.findSeriesVersions(ids)));
+        Map<Long, List<Entry>> active = group(ReplicaRouting.onPrimary(
+                () -> seriesRepository.findActiveByRoomsSince(ids, LocalDate.now().minusDays(2))));
+
+        underReadLock(() -> ids.forEach(roomId -> {
+            Long version = versions.get(roomId);
+            if (version == null) {
+                byRoom.remove(roomId);
+                return;
+            }
+            RoomSeries loaded = new RoomSeries(version, active.getOrDefault(roomId, List.of()));
+            byRoom.merge(roomId, loaded, (current, fresh) -> fresh.version() >= current.version() ? fresh : current);
+        }));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // versão a mandar no INSERT de uma reserva da sala; ler antes de isFree
+    public long version(Long roomId) {
+        RoomSeries room = byRoom.get(roomId);
+        return room != null ? room.version() : 0L;
+    }
+
+    public boolean isFree(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return overlappingSeries(roomId, start, end).isEmpty();
+    }
+
+    // séries da sala com alguma ocorrência sobrepondo [start, end)
+    public List<Entry> overlappingSeries(Long roomId, LocalDateTime start, LocalDateTime end) {
+        return activeInRoom(roomId, start).stream()
+                .filter(entry -> entry.rule().overlaps(start, end))
+                .toList();
+    }
+
+    // séries da sala que ainda podem ter ocorrências a partir de "since"
+    public List<Entry> activeInRoom(Long roomId, LocalDateTime since) {
+        if (!ready || since.toLocalDate().isBefore(LocalDate.now().minusDays(1))) {
+            return seriesRepository.findActiveByRoomSince(roomId, since.toLocalDate().minusDays(1))
+                    .stream()
+                    .map(Entry::of)
+                    .toList();
+        }
+        RoomSeries room = byRoom.get(roomId);
+        return room != null ? room.entries() : List.of();
+    }
+
+    // a versão fica: remover uma série não abre espaço para conflito
+    private void remove(Long roomId, Long seriesId) {
+        underReadLock(() -> byRoom.computeIfPresent(roomId, (id, room) -> room.withEntries(room.entries().stream()
+                .filter(entry -> !entry.seriesId().equals(seriesId))
+                .toList())));
+    }
+
+    private static Map<Long, List<Entry>> group(List<ReservationSeries> series) {
+        Map<Long, List<Entry>> grouped = new HashMap<>();
+        for (ReservationSeries one : series) {
+            grouped.computeIfAbsent(one.getRoom().getId(), id -> new ArrayList<>()).add(Entry.of(one));
+        }
+        grouped.replaceAll((roomId, entries) -> List.copyOf(entries));
+        return grouped;
+    }
+
+    private static Map<Long, Long> versionsOf(List<RoomSeriesVersion> rows) {
+        Map<Long, Long> versions = new HashMap<>();
+        rows.forEach(row -> versions.put(row.getId(), row.getSeriesVersion()));
+        return versions;
+    }
+
+    private void underReadLock(Runnable change) {
+        reloadLock.readLock().lock();
+        try {
+            change.run();
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.reservaja.service.series;
+
+import com.reservaja.config.datasource.ReadYourWritesTracker;
+import com.reservaja.dto.series.OccurrenceResponse;
+import com.reservaja.dto.series.SeriesRequest;
+import com.reservaja.exception.BadRequestException;
+import com.reservaja.exception.ConflictException;
+import com.reservaja.exception.ResourceNotFoundException;
+import com.reservaja.model.entity.Reservation;
+import com.reservaja.model.entity.ReservationSeries;
+import com.reservaja.model.entity.Room;
+import com.reservaja.model.entity.User;
+import com.reservaja.repository.ReservationRepository;
+import com.reservaja.repository.ReservationSeriesRepository;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.repository.UserRepository;
+import com.reservaja.service.UserPrincipal;
+import com.reservaja.service.hold.HoldRegistry;
+import com.reservaja.service.reservation.ReservationService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Séries de reservas recorrentes. Nenhuma ocorrência é gravada: a checagem de conflito de uma
+ * série nova testa a regra contra as reservas avulsas do período (lidas em um único SELECT),
+ * contra as regras das outras séries da sala e contra os bloqueios provisórios, sem montar listas.
+ *
+ * A exclusion constraint só cobre {@code reservations}, então séries e reservas avulsas se
+ * excluem pela versão das séries da sala ({@code rooms.series_version}, migration V6): a criação
+ * trava a linha da sala em FOR UPDATE antes de checar e incrementa a versão; o INSERT de uma
+ * reserva confere a versão com FOR KEY SHARE, espera a série em andamento e é rejeitado se ela
+ * mudou (ver {@code ReservationService}). Reservas já gravadas e não confirmadas seguram a
+ * criação da série até o commit delas, então o SELECT das reservas do período as enxerga.
+ * A raia da sala em {@code BookingLanes} só ordena o trabalho do nó.
+ */
+@Service
+public class SeriesService {
+
+    public static final int MAX_INTERVAL = 12;
+    public static final int MAX_DURATION_MINUTES = Reservation.MAX_DURATION_MINUTES;
+    public static final int MAX_SPAN_YEARS = 5;
+    public static final int MAX_OCCURRENCE_WINDOW_DAYS = 366;
+
+    private final ReservationSeriesRepository seriesRepository;
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final UserRepository userRepository;
+    private final SeriesIndex seriesIndex;
+    private final HoldRegistry holds;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public SeriesService(ReservationSeriesRepository seriesRepository,
+                         ReservationRepository reservationRepository,
+                         RoomRepository roomRepository,
+                         UserRepository userRepository,
+                         SeriesIndex seriesIndex,
+                         HoldRegistry holds,
+                         ApplicationEventPublisher eventPublisher,
+                         ReadYourWritesTracker readYourWrites) {
+        this.seriesRepository = seriesRepository;
+        this.reservationRepository = reservationRepository;
+        this.roomRepository = roomRepository;
+        this.userRepository = userRepository;
+        this.seriesIndex = seriesIndex;
+        this.holds = holds;
+        this.eventPublisher = eventPublisher;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Transactional
+    public ReservationSeries create(Long userId, SeriesRequest request) {
+        LocalDateTime firstStart = request.getFirstStart();
+        if (request.getUntil().isBefore(firstStart.toLocalDate())) {
+            throw new BadRequestException("Data final deve ser igual ou posterior à primeira ocorrência");
+        }
+        if (request.getUntil().isAfter(firstStart.toLocalDate().plusYears(MAX_SPAN_YEARS))) {
+            throw new BadRequestException("Série não pode exceder " + MAX_SPAN_YEARS + " anos");
+        }
+
+        // travada até o commit: INSERTs de reservas e outras séries da sala esperam, em qualquer thread ou nó
+        roomRepository.lockSeriesVersion(request.getRoomId())
+                .orElseThrow(() -> new ResourceNotFoundException("Sala não encontrada: " + request.getRoomId()));
+        Room room = roomRepository.getReferenceById(request.getRoomId());
+
+        Duration duration = Duration.ofMinutes(request.getDurationMinutes());
+        Recurrence rule = new Recurrence(request.getFrequency(), request.getInterval(), firstStart,
+                duration, request.getUntil(), Set.of());
+
+        firstConflict(userId, room, rule).ifPresent(start -> {
+            throw new ConflictException(ReservationService.OVERLAP_MESSAGE + " (ocorrência de " + start + ")");
+        });
+
+        ReservationSeries saved = seriesRepository.saveAndFlush(ReservationSeries.builder()
+                .user(userRepository.getReferenceById(userId))
+                .room(room)
+                .frequency(request.getFrequency())
+                .interval(request.getInterval())
+                .firstStart(firstStart)
+                .durationMinutes(request.getDurationMinutes())
+                .until(request.getUntil())
+                .exceptions(new HashSet<>())
+                .build());
+        // reservas checadas contra a versão anterior (sem esta série) são rejeitadas pelo banco
+        roomRepository.incrementSeriesVersion(room.getId());
+
+        eventPublisher.publishEvent(new SeriesChangedEvent(SeriesChangedEvent.Type.CREATED, saved.getId(), room.getId()));
+        readYourWrites.markWrite(userId);
+        return saved;
+    }
+
+    @Transactional
+    public void cancel(Long seriesId, UserPrincipal principal) {
+        ReservationSeries series = findOwned(seriesId, principal);
+        seriesRepository.delete(series);
+
+        eventPublisher.publishEvent(new SeriesChangedEvent(SeriesChangedEvent.Type.DELETED, series.getId(), series.getRoom().getId()));
+        readYourWrites.markWrite(principal.getId());
+    }
+
+    // cancela uma única ocorrência; as demais continuam
+    @Transactional
+    public ReservationSeries skipOccurrence(Long seriesId, LocalDate date, UserPrincipal principal) {
+        ReservationSeries series = findOwned(seriesId, principal);
+
+        boolean scheduled = Recurrence.of(series)
+                .startsOverlapping(date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+                .stream()
+                .anyMatch(start -> start.toLocalDate().equals(date));
+        if (!scheduled) {
+            throw new ResourceNotFoundException("A série " + seriesId + " não tem ocorrência em " + date);
+        }
+
+        series.getExceptions().add(date);
+        seriesRepository.saveAndFlush(series);
+
+        eventPublisher.publishEvent(new SeriesChangedEvent(SeriesChangedEvent.Type.UPDATED, series.getId(), series.getRoom().getId()));
+        readYourWrites.markWrite(principal.getId());
+        return series;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationSeries> listForUser(Long userId) {
+        return seriesRepository.findByUserId(userId);
+    }
+
+    /**
+     * Ocorrências dentro de [from, to), expandidas só nessa janela: as da sala (pelo índice
+     * de séries) ou, sem sala, as do usuário.
+     */
+    @Transactional(readOnly = true)
+    public List<OccurrenceResponse> occurrences(Long userId, Long roomId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Horário inicial deve ser anterior ao horário final");
+        }
+        if (Duration.between(from, to).toDays() > MAX_OCCURRENCE_WINDOW_DAYS) {
+            throw new BadRequestException("Janela de ocorrências não pode exceder " + MAX_OCCURRENCE_WINDOW_DAYS + " dias");
+        }
+
+        List<SeriesIndex.Entry> entries = roomId != null
+                ? seriesIndex.activeInRoom(roomId, from)
+                : seriesRepository.findByUserId(userId).stream().map(SeriesIndex.Entry::of).toList();
+
+        List<OccurrenceResponse> occurrences = new ArrayList<>();
+        for (SeriesIndex.Entry entry : entries) {
+            for (LocalDateTime start : entry.rule().startsOverlapping(from, to)) {
+                occurrences.add(new OccurrenceResponse(entry.seriesId(), entry.roomId(), entry.userId(),
+                        start, start.plus(entry.rule().duration())));
+            }
+        }
+        occurrences.sort(Comparator.comparing(OccurrenceResponse::getStartTime).thenComparing(OccurrenceResponse::getSeriesId));
+        return occurrences;
+    }
+
+    // início da primeira ocorrência da regra que colide com outra série, uma reserva avulsa
+    // ou um bloqueio provisório de outro usuário. Séries e reservas vêm do banco: com a sala
+    // travada ele está completo, enquanto os índices só recebem o que outros gravaram depois do commit
+    private Optional<LocalDateTime> firstConflict(Long userId, Room room, Recurrence rule) {
+        Long roomId = room.getId();
+        Duration duration = rule.duration();
+        LocalDateTime lastEnd = rule.lastEnd();
+
+        // séries: cada ocorrência nova pergunta à regra da outra, que só calcula a janela dela
+        List<Recurrence> others = seriesRepository.findActiveByRoomSince(roomId, rule.firstStart().toLocalDate().minusDays(1))
+                .stream()
+                .map(Recurrence::of)
+                .filter(other -> other.firstStart().isBefore(lastEnd) && other.lastEnd().isAfter(rule.firstStart()))
+                .toList();
+
+        AtomicReference<LocalDateTime> conflict = new AtomicReference<>();
+        rule.anyStart(start -> {
+            LocalDateTime end = start.plus(duration);
+            boolean taken = others.stream().anyMatch(other -> other.overlaps(start, end))
+                    || !holds.isFree(roomId, start, end, userId);
+            if (taken) {
+                conflict.set(start);
+            }
+            return taken;
+        });
+
+        // reservas avulsas do período inteiro em um SELECT, testadas contra a regra
+        List<Reservation> existing = reservationRepository.findOverlapping(room, rule.firstStart(), lastEnd);
+        return existing.stream()
+                .flatMap(reservation -> rule.startsOverlapping(reservation.getStartTime(), reservation.getEndTime()).stream())
+                .filter(start -> conflict.get() == null || start.isBefore(conflict.get()))
+                .min(Comparator.naturalOrder())
+                .or(() -> Optional.ofNullable(conflict.get()));
+    }
+
+    private ReservationSeries findOwned(Long seriesId, UserPrincipal principal) {
+        ReservationSeries series = seriesRepository.findWithExceptionsById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("Série não encontrada: " + seriesId));
+
+        boolean isAdmin = principal.getAuthorities().stream()
+                .anyMatch(authority -> User.Role.ROLE_ADMIN.name().equals(authority.getAuthority()));
+
+        if (!isAdmin && !series.getUser().getId().equals(principal.getId())) {
+            throw new AccessDeniedException("Série pertence a outro usuário");
+        }
+        return series;
+    }
+}
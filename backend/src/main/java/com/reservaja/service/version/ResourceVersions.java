@@ -0,0 +1,181 @@
+package com.reservaja.service.version;
+
+import com.reservaja.config.datasource.ReplicaRouting;
+import com.reservaja.repository.RoomRepository;
+import com.reservaja.repository.projection.RoomDetails;
+import com.reservaja.service.hold.Hold;
+import com.reservaja.service.hold.HoldRegistry;
+import com.reservaja.service.reservation.RoomCalendarIndex;
+import com.reservaja.service.room.RoomChangedEvent;
+import com.reservaja.service.series.SeriesIndex;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ETags das consultas de salas e disponibilidade, calculadas a partir do conteúdo, e não de
+ * contadores deste processo: todos os nós atrás do balanceador emitem a mesma tag para o mesmo
+ * estado, e um 304 vale em qualquer um deles (e depois de um restart).
+ *
+ * A versão de uma sala é um hash dos campos da resposta, lidos do primário na subida e a cada
+ * alteração (deste ou de outro nó). A de uma janela combina, por XOR, as reservas, os bloqueios
+ * provisórios e as séries que a sobrepõem, lidos dos índices em memória que cada nó carrega do
+ * banco e mantém pela coerência; o 304 continua sem consultar o banco.
+ *
+ * Janelas que começam antes de hoje não recebem ETag: nelas os índices de nós carregados em
+ * momentos diferentes não cobrem os mesmos dias.
+ */
+@Component
+public class ResourceVersions {
+
+    // janelas maiores que isso não recebem ETag (evita percorrer reservas demais)
+    private static final long MAX_TAGGED_DAYS = 400;
+
+    // uma semente por tipo: reserva e série com o mesmo id não se anulam no XOR
+    private static final long ROOM = 1;
+    private static final long RESERVATION = 2;
+    private static final long HOLD = 3;
+    private static final long SERIES = 4;
+
+    private final RoomRepository roomRepository;
+    private final RoomCalendarIndex calendarIndex;
+    private final SeriesIndex seriesIndex;
+    private final HoldRegistry holds;
+
+    // versão de cada sala; o catálogo é o XOR de todas
+    private volatile ConcurrentHashMap<Long, Long> rooms = new ConcurrentHashMap<>();
+    private volatile long catalog;
+    private volatile boolean ready;
+
+    public ResourceVersions(RoomRepository roomRepository,
+                            RoomCalendarIndex calendarIndex,
+                            SeriesIndex seriesIndex,
+                            HoldRegistry holds) {
+        this.roomRepository = roomRepository;
+        this.calendarIndex = calendarIndex;
+        this.seriesIndex = seriesIndex;
+        this.holds = holds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    // o evento só diz qual sala mudou; o conteúdo vem do primário, como nas séries. Serializado:
+    // a última leitura é sempre a mais nova, mesmo com alterações seguidas da mesma sala
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(100)
+    public synchronized void onRoomChanged(RoomChangedEvent event) {
+        Optional<RoomDetails> room = event.type() == RoomChangedEvent.Type.DELETED
+                ? Optional.empty()
+                : ReplicaRouting.onPrimary(() -> roomRepository.findDetailsById(event.roomId()));
+        if (room.isPresent()) {
+            rooms.put(event.roomId(), version(room.get()));
+        } else {
+            rooms.remove(event.roomId());
+        }
+        catalog = catalogOf(rooms);
+    }
+
+    // na subida e após recarregar os índices (ex: ressincronização entre nós)
+    public synchronized void reload() {
+        ConcurrentHashMap<Long, Long> loaded = new ConcurrentHashMap<>();
+        ReplicaRouting.onPrimary(roomRepository::findAllDetails).forEach(room -> loaded.put(room.getId(), version(room)));
+        rooms = loaded;
+        catalog = catalogOf(loaded);
+        ready = true;
+    }
+
+    // listas grandes recebem ETag fraca: o Tomcat não comprime respostas com ETag forte, e a
+    // versão identifica o conteúdo, não os bytes de uma codificação específica.
+    // null antes da carga, como as demais
+    public String roomsTag() {
+        return ready ? "W/" + tag("rooms", catalog) : null;
+    }
+
+    public String roomTag(Long roomId) {
+        return ready ? tag("room", rooms.getOrDefault(roomId, 0L)) : null;
+    }
+
+    // null quando a janela é inválida, passada ou grande demais
+    public String availabilityTag(LocalDateTime from, LocalDateTime to) {
+        if (!taggable(from, to)) {
+            return null;
+        }
+        long digest = catalog;
+        for (Long roomId : rooms.keySet()) {
+            digest ^= window(roomId, from, to);
+        }
+        return "W/" + tag("available", digest);
+    }
+
+    public String slotTag(Long roomId, LocalDateTime from, LocalDateTime to) {
+        if (!taggable(from, to)) {
+            return null;
+        }
+        return tag("slot", mix(rooms.getOrDefault(roomId, 0L), window(roomId, from, to)));
+    }
+
+    private boolean taggable(LocalDateTime from, LocalDateTime to) {
+        return ready && seriesIndex.isReady()
+                && from != null && to != null && from.isBefore(to)
+                && !from.isBefore(LocalDate.now().atStartOfDay()) && calendarIndex.covers(from)
+                && Duration.between(from, to).toDays() <= MAX_TAGGED_DAYS;
+    }
+
+    // o que ocupa a sala na janela; ids são únicos, então a ordem de chegada nos índices não importa
+    private long window(Long roomId, LocalDateTime from, LocalDateTime to) {
+        long digest = 0;
+        for (long reservationId : calendarIndex.findOverlapping(roomId, from, to)) {
+            digest ^= mix(RESERVATION, reservationId);
+        }
+        for (Hold hold : holds.overlapping(roomId, from, to, null)) {
+            digest ^= mix(mix(HOLD, hold.id().hashCode()), hold.userId());
+        }
+        // cancelar uma ocorrência muda as exceções, não o id
+        for (SeriesIndex.Entry entry : seriesIndex.overlappingSeries(roomId, from, to)) {
+            digest ^= mix(mix(SERIES, entry.seriesId()), entry.rule().exceptions().hashCode());
+        }
+        return digest;
+    }
+
+    // hashCode de String, Integer e Set<LocalDate> tem fórmula fixa: igual em qualquer JVM
+    private static long version(RoomDetails room) {
+        long version = mix(ROOM, room.getId());
+        version = mix(version, Objects.hashCode(room.getName()));
+        version = mix(version, Objects.hashCode(room.getCapacity()));
+        return mix(version, Objects.hashCode(room.getDescription()));
+    }
+
+    private static long catalogOf(Map<Long, Long> rooms) {
+        long catalog = 0;
+        for (long version : rooms.values()) {
+            catalog ^= version;
+        }
+        return catalog;
+    }
+
+    // finalizador do SplitMix64 sobre (seed, value)
+    private static long mix(long seed, long value) {
+        long z = seed * 0x9E3779B97F4A7C15L + value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String tag(String kind, long version) {
+        return "\"" + kind + '-' + Long.toUnsignedString(version, 36) + '"';
+    }
+}
@@ -0,0 +1,48 @@
+-- Schema do H2 (testes de carga e execução local em memória). Sem exclusion constraint nem
+-- particionamento: a sobreposição é validada apenas pela aplicação.
+
+CREATE SEQUENCE reservations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    email varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('ROLE_ADMIN', 'ROLE_USER')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE rooms (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL UNIQUE,
+    description varchar(255),
+    capacity integer NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reservations (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL REFERENCES users,
+    room_id bigint NOT NULL REFERENCES rooms,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reservation_series (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint NOT NULL REFERENCES users,
+    room_id bigint NOT NULL REFERENCES rooms,
+    frequency varchar(16) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY')),
+    repeat_interval integer NOT NULL,
+    first_start timestamp(6) NOT NULL,
+    duration_minutes integer NOT NULL,
+    until_date date NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE reservation_series_exceptions (
+    series_id bigint NOT NULL REFERENCES reservation_series,
+    occurrence_date date NOT NULL,
+    PRIMARY KEY (occurrence_date, series_id)
+);
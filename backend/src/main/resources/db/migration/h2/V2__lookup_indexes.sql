@@ -0,0 +1,8 @@
+-- Mesmos índices (e nomes) da V5 do PostgreSQL; o H2 não tem INCLUDE, então as colunas
+-- cobertas entram na chave.
+
+CREATE INDEX reservations_room_start_idx ON reservations (room_id, start_time, end_time);
+CREATE INDEX reservations_user_start_idx ON reservations (user_id, start_time, id);
+CREATE INDEX reservation_series_room_until_idx ON reservation_series (room_id, until_date);
+CREATE INDEX reservation_series_user_idx ON reservation_series (user_id);
+CREATE INDEX reservation_series_exceptions_series_idx ON reservation_series_exceptions (series_id);
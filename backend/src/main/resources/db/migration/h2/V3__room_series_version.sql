@@ -0,0 +1,5 @@
+-- Mesmas colunas da V6 do PostgreSQL, sem o trigger: o H2 só roda em um nó, onde a raia da
+-- sala (BookingLanes) já ordena séries e reservas.
+
+ALTER TABLE rooms ADD COLUMN series_version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE reservations ADD COLUMN series_version bigint;
@@ -0,0 +1,70 @@
+-- Schema que o Hibernate (ddl-auto) criava até aqui. Idempotente: bancos criados antes das
+-- migrations entram pela baseline 0 (spring.flyway.baseline-on-migrate) e passam sem alteração.
+
+CREATE SEQUENCE IF NOT EXISTS reservations_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigserial NOT NULL,
+    email varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('ROLE_ADMIN', 'ROLE_USER')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id bigserial NOT NULL,
+    name varchar(255) NOT NULL UNIQUE,
+    description varchar(255),
+    capacity integer NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS reservations (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    room_id bigint NOT NULL,
+    start_time timestamp(6) NOT NULL,
+    end_time timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS reservation_series (
+    id bigserial NOT NULL,
+    user_id bigint NOT NULL,
+    room_id bigint NOT NULL,
+    frequency varchar(16) NOT NULL CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY')),
+    repeat_interval integer NOT NULL,
+    first_start timestamp(6) NOT NULL,
+    duration_minutes integer NOT NULL,
+    until_date date NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS reservation_series_exceptions (
+    series_id bigint NOT NULL,
+    occurrence_date date NOT NULL,
+    PRIMARY KEY (occurrence_date, series_id)
+);
+
+-- mesmos nomes gerados pelo Hibernate, para reconhecer as chaves já existentes
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT * FROM (VALUES
+            ('reservations', 'fkb5g9io5h54iwl2inkno50ppln', 'FOREIGN KEY (user_id) REFERENCES users'),
+            ('reservations', 'fkljt6q1tp205b0h26eiegc5mx6', 'FOREIGN KEY (room_id) REFERENCES rooms'),
+            ('reservation_series', 'fkavtqlud7tiyou1678osgav4sk', 'FOREIGN KEY (user_id) REFERENCES users'),
+            ('reservation_series', 'fk2qgi0gv8pgohi1j90jxk48bsk', 'FOREIGN KEY (room_id) REFERENCES rooms'),
+            ('reservation_series_exceptions', 'fk7txoder66svy8csmplld7sdjw', 'FOREIGN KEY (series_id) REFERENCES reservation_series')
+        ) AS expected (table_name, constraint_name, definition)
+    LOOP
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                        WHERE conname = fk.constraint_name AND conrelid = fk.table_name::regclass) THEN
+            EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', fk.table_name, fk.constraint_name, fk.definition);
+        END IF;
+    END LOOP;
+END
+$$;
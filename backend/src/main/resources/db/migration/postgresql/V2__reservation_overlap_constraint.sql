@@ -0,0 +1,24 @@
+-- Duas reservas da mesma sala nunca se sobrepõem: coluna period gerada a partir de
+-- start_time/end_time e exclusion constraint GiST sobre (room_id =, period &&).
+-- Tabelas já particionadas (V3) têm a constraint em cada partição.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED;
+
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'reservations'::regclass) = 'r'
+       AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservations_no_overlap') THEN
+        ALTER TABLE reservations
+            ADD CONSTRAINT reservations_no_overlap EXCLUDE USING gist (room_id WITH =, period WITH &&);
+    END IF;
+END
+$$;
+
+-- ids gravados antes da sequência (coluna IDENTITY): o próximo bloco começa depois deles
+SELECT setval('reservations_seq', legacy.max_id)
+  FROM (SELECT max(id) AS max_id FROM reservations) legacy
+ WHERE legacy.max_id >= (SELECT last_value FROM reservations_seq);
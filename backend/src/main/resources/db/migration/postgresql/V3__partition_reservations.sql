@@ -0,0 +1,57 @@
+-- reservations particionada por mês de start_time. A tabela comum é trocada por uma
+-- particionada com as mesmas colunas, chaves estrangeiras e linhas: uma partição por mês com
+-- reservas até o corrente e a partição default; os meses seguintes são criados com antecedência
+-- pela aplicação (ReservationPartitioning). A chave de partição precisa fazer parte da PK; ids
+-- continuam únicos pela sequência. A exclusion constraint passa a ficar em cada partição.
+
+DO $$
+DECLARE
+    pk_name text;
+    fk record;
+    first_month timestamp;
+    partition_month timestamp;
+    partition_name text;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'reservations'::regclass) <> 'r' THEN
+        RETURN;
+    END IF;
+    LOCK TABLE reservations IN ACCESS EXCLUSIVE MODE;
+
+    -- o índice da PK e o da exclusion constraint têm nomes globais: liberados antes da tabela nova
+    SELECT conname INTO pk_name FROM pg_constraint WHERE conrelid = 'reservations'::regclass AND contype = 'p';
+    ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+    ALTER TABLE reservations_unpartitioned DROP CONSTRAINT IF EXISTS reservations_no_overlap;
+    EXECUTE format('ALTER TABLE reservations_unpartitioned RENAME CONSTRAINT %I TO reservations_unpartitioned_pkey', pk_name);
+
+    -- sem os defaults antigos (serial da coluna IDENTITY): ids vêm da sequência do Hibernate
+    CREATE TABLE reservations (LIKE reservations_unpartitioned INCLUDING GENERATED) PARTITION BY RANGE (start_time);
+    EXECUTE format('ALTER TABLE reservations ADD CONSTRAINT %I PRIMARY KEY (id, start_time)', pk_name);
+    FOR fk IN
+        SELECT conname, pg_get_constraintdef(oid) AS definition
+          FROM pg_constraint
+         WHERE conrelid = 'reservations_unpartitioned'::regclass AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE reservations ADD CONSTRAINT %I %s', fk.conname, fk.definition);
+    END LOOP;
+
+    CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+    ALTER TABLE reservations_default
+        ADD CONSTRAINT reservations_default_no_overlap EXCLUDE USING gist (room_id WITH =, period WITH &&);
+
+    SELECT date_trunc('month', min(start_time)) INTO first_month FROM reservations_unpartitioned;
+    FOR partition_month IN
+        SELECT generate_series(least(coalesce(first_month, date_trunc('month', localtimestamp)), date_trunc('month', localtimestamp)),
+                               date_trunc('month', localtimestamp), interval '1 month')
+    LOOP
+        partition_name := 'reservations_p' || to_char(partition_month, 'YYYY_MM');
+        EXECUTE format('CREATE TABLE %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, partition_month, partition_month + interval '1 month');
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist (room_id WITH =, period WITH &&)',
+                       partition_name, partition_name || '_no_overlap');
+    END LOOP;
+
+    INSERT INTO reservations (id, user_id, room_id, start_time, end_time)
+    SELECT id, user_id, room_id, start_time, end_time FROM reservations_unpartitioned;
+    DROP TABLE reservations_unpartitioned;
+END
+$$;
@@ -0,0 +1,71 @@
+-- Meses antigos saem das partições para reservations_archive: uma linha por sala e mês com as
+-- reservas em um array jsonb, comprimido pelo TOAST. Relatórios leem partições e arquivo pela
+-- função reservations_history(from, to). O arquivamento em si roda na aplicação
+-- (ReservationPartitioning).
+
+CREATE TABLE IF NOT EXISTS reservations_archive (
+    month date NOT NULL,
+    room_id bigint NOT NULL,
+    reservation_count integer NOT NULL,
+    reservations jsonb NOT NULL,
+    PRIMARY KEY (month, room_id)
+);
+
+-- lz4 comprime e descomprime mais rápido que o pglz padrão, mas depende do build do servidor
+DO $$
+BEGIN
+    ALTER TABLE reservations_archive ALTER COLUMN reservations SET COMPRESSION lz4;
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'lz4 indisponível; compressão padrão mantida';
+END
+$$;
+
+-- função SQL simples: o planejador a expande na consulta e poda partições e meses arquivados
+CREATE OR REPLACE FUNCTION reservations_history(from_time timestamp, to_time timestamp)
+RETURNS TABLE (id bigint, user_id bigint, room_id bigint, start_time timestamp, end_time timestamp)
+LANGUAGE sql STABLE AS $$
+    SELECT r.id, r.user_id, r.room_id, r.start_time, r.end_time
+      FROM reservations r
+     WHERE r.start_time >= from_time AND r.start_time < to_time
+    UNION ALL
+    SELECT (e->>'id')::bigint, (e->>'user_id')::bigint, a.room_id,
+           (e->>'start_time')::timestamp, (e->>'end_time')::timestamp
+      FROM reservations_archive a
+      CROSS JOIN LATERAL jsonb_array_elements(a.reservations) e
+     WHERE a.month >= date_trunc('month', from_time) AND a.month < to_time
+       AND (e->>'start_time')::timestamp >= from_time
+       AND (e->>'start_time')::timestamp < to_time
+$$;
+
+-- A exclusion constraint só vale dentro de cada partição. Reservas que cruzam a virada do mês,
+-- ou começam a menos da duração máxima (Reservation.MAX_DURATION, 24 h) dela, serializam a sala
+-- com uma advisory lock e procuram sobreposições na tabela inteira.
+CREATE OR REPLACE FUNCTION reservations_boundary_guard() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    max_duration constant interval := interval '24 hours';
+    month_start constant timestamp := date_trunc('month', NEW.start_time);
+BEGIN
+    IF NEW.end_time - NEW.start_time > max_duration THEN
+        RAISE EXCEPTION 'reserva excede a duração máxima de %', max_duration
+            USING ERRCODE = 'check_violation';
+    END IF;
+    -- só aqui uma sobreposição pode envolver duas partições
+    IF NEW.end_time > month_start + interval '1 month' OR NEW.start_time < month_start + max_duration THEN
+        PERFORM pg_advisory_xact_lock(hashtext('reservations_boundary'), (NEW.room_id % 2147483647)::integer);
+        IF EXISTS (SELECT 1 FROM reservations r
+                    WHERE r.room_id = NEW.room_id AND r.id <> NEW.id
+                      AND r.start_time < NEW.end_time AND r.end_time > NEW.start_time
+                      AND r.start_time > NEW.start_time - max_duration) THEN
+            RAISE EXCEPTION 'conflicting key value violates exclusion constraint "reservations_no_overlap"'
+                USING ERRCODE = 'exclusion_violation', CONSTRAINT = 'reservations_no_overlap';
+        END IF;
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS reservations_boundary_guard ON reservations;
+CREATE TRIGGER reservations_boundary_guard
+    BEFORE INSERT OR UPDATE OF room_id, start_time, end_time ON reservations
+    FOR EACH ROW EXECUTE FUNCTION reservations_boundary_guard();
@@ -0,0 +1,21 @@
+-- Índices dos caminhos quentes, conferidos no startup por SchemaVerifier (nomes e planos).
+-- Em reservations (particionada) cada índice é criado em todas as partições, inclusive nas futuras.
+
+-- sobreposição por sala: room_id = ? e faixa de start_time (start_time > início - duração máxima);
+-- end_time e as demais colunas no INCLUDE permitem index-only scan
+CREATE INDEX IF NOT EXISTS reservations_room_start_idx
+    ON reservations USING btree (room_id, start_time) INCLUDE (end_time, user_id, id);
+
+-- reservas do usuário em ordem de (start_time, id): listagem paginada por keyset e findByUser
+CREATE INDEX IF NOT EXISTS reservations_user_start_idx
+    ON reservations USING btree (user_id, start_time, id) INCLUDE (room_id, end_time);
+
+-- séries ativas da sala (room_id = ? e until_date >= ?) e séries do usuário
+CREATE INDEX IF NOT EXISTS reservation_series_room_until_idx
+    ON reservation_series USING btree (room_id, until_date);
+CREATE INDEX IF NOT EXISTS reservation_series_user_idx
+    ON reservation_series USING btree (user_id);
+
+-- exceções carregadas por série (a PK começa por occurrence_date)
+CREATE INDEX IF NOT EXISTS reservation_series_exceptions_series_idx
+    ON reservation_series_exceptions USING btree (series_id);
@@ -0,0 +1,32 @@
+-- Séries e reservas avulsas se excluem sem travar a sala a cada reserva. rooms.series_version
+-- sobe a cada série criada na sala, com a sala em FOR UPDATE (SeriesService); cada INSERT em
+-- reservations leva a versão que o SeriesIndex do nó conhecia quando checou as séries, e o
+-- trigger abaixo a confere com FOR KEY SHARE, o mesmo lock que a checagem da FK já toma na sala.
+-- Esse lock espera uma série em andamento e, depois do commit dela, relê a linha: versão
+-- diferente rejeita o INSERT com SQLSTATE 23R01 e a aplicação recarrega as séries da sala e
+-- tenta de novo. Nenhuma leitura extra por reserva e nenhum lock além do da FK.
+
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS series_version bigint NOT NULL DEFAULT 0;
+-- só trafega no INSERT: o trigger a zera antes de gravar, e NULL (ex.: linhas movidas entre
+-- partições por ReservationPartitioning) não é conferido
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS series_version bigint;
+
+CREATE OR REPLACE FUNCTION reservations_series_version_check() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF NEW.series_version IS NOT NULL THEN
+        PERFORM 1 FROM rooms WHERE id = NEW.room_id AND series_version = NEW.series_version FOR KEY SHARE;
+        IF NOT FOUND THEN
+            RAISE EXCEPTION 'séries da sala % mudaram desde a checagem da reserva', NEW.room_id
+                USING ERRCODE = '23R01';
+        END IF;
+        NEW.series_version := NULL;
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS reservations_series_version_check ON reservations;
+CREATE TRIGGER reservations_series_version_check
+    BEFORE INSERT ON reservations
+    FOR EACH ROW EXECUTE FUNCTION reservations_series_version_check();
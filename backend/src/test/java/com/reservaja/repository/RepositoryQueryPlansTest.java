@@ -0,0 +1,262 @@
+package com.reservaja.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.reservaja.config.SchemaVerifier.RESERVATIONS_ROOM_START_INDEX;
+import static com.reservaja.config.SchemaVerifier.RESERVATIONS_USER_START_INDEX;
+import static com.reservaja.config.SchemaVerifier.SERIES_EXCEPTIONS_SERIES_INDEX;
+import static com.reservaja.config.SchemaVerifier.SERIES_ROOM_UNTIL_INDEX;
+import static com.reservaja.config.SchemaVerifier.SERIES_USER_INDEX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os métodos quentes dos repositórios ainda usam os índices da migration V5: cada um roda
+ * contra um PostgreSQL migrado pelo Flyway, o SQL que o Hibernate gerou é capturado e passa
+ * por um EXPLAIN do plano genérico (o que vale para quaisquer parâmetros) com
+ * {@code enable_seqscan} desligado: só o plano importa, e em tabelas vazias o seq scan ganharia
+ * de qualquer índice. Todo acesso às tabelas
+ * listadas precisa ser pelo índice esperado, ou pela partição dele; às demais, por algum índice.
+ *
+ * Roda em um PostgreSQL embutido ({@code io.zonky.test:embedded-postgres}, binários da mesma
+ * versão do docker-compose baixados pelo Maven), iniciado uma vez por JVM, então nunca é
+ * pulado no build. Para usar outro PostgreSQL 12+ descartável (as migrations rodam nele):
+ * {@code TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/reservaja_test mvn test},
+ * com {@code TEST_POSTGRES_USERNAME} e {@code TEST_POSTGRES_PASSWORD}.
+ */
+// sem o cache de segundo nível: os planos não dependem dele
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=org.hibernate.cache.internal.NoCachingRegionFactory"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlansTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    private static final CapturedSql CAPTURED = new CapturedSql();
+
+    private static EmbeddedPostgres embedded;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getenv("TEST_POSTGRES_URL");
+        if (url != null && !url.isBlank()) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("TEST_POSTGRES_USERNAME", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("TEST_POSTGRES_PASSWORD", ""));
+            return;
+        }
+        EmbeddedPostgres postgres = embeddedPostgres();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    // parado pelo shutdown hook do próprio EmbeddedPostgres
+    private static synchronized EmbeddedPostgres embeddedPostgres() {
+        if (embedded == null) {
+            try {
+                embedded = EmbeddedPostgres.start();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("PostgreSQL embutido não subiu", ex);
+            }
+        }
+        return embedded;
+    }
+
+    @TestConfiguration
+    static class Inspector {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, CAPTURED);
+        }
+    }
+
+    @Autowired
+    private ReservationRepository reservations;
+
+    @Autowired
+    private ReservationSeriesRepository series;
+
+    @Autowired
+    private RoomRepository rooms;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void forceIndexedGenericPlans() {
+        // vale até o rollback da transação do teste
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        // os NULLs do EXECUTE podariam todas as partições de reservations e o plano ficaria vazio
+        jdbcTemplate.execute("SET LOCAL enable_partition_pruning = off");
+    }
+
+    @Test
+    void overlappingByRoomUsesRoomStartIndex() {
+        LocalDateTime from = LocalDateTime.now();
+        assertPlans(() -> reservations.findOverlapping(rooms.getReferenceById(1L), from, from.plusHours(1)),
+                Map.of("reservations", RESERVATIONS_ROOM_START_INDEX));
+    }
+
+    @Test
+    void userFirstPageUsesUserStartIndex() {
+        assertPlans(() -> reservations.findPageByUser(1L, Limit.of(21)),
+                Map.of("reservations", RESERVATIONS_USER_START_INDEX));
+    }
+
+    @Test
+    void userNextPageUsesUserStartIndex() {
+        assertPlans(() -> reservations.findPageByUserAfter(1L, LocalDateTime.now(), 1L, Limit.of(21)),
+                Map.of("reservations", RESERVATIONS_USER_START_INDEX));
+    }
+
+    @Test
+    void activeSeriesByRoomUseRoomUntilIndex() {
+        assertPlans(() -> series.findActiveByRoomSince(1L, LocalDate.now()),
+                Map.of("reservation_series", SERIES_ROOM_UNTIL_INDEX,
+                        "reservation_series_exceptions", SERIES_EXCEPTIONS_SERIES_INDEX));
+    }
+
+    @Test
+    void activeSeriesByRoomsUseRoomUntilIndex() {
+        assertPlans(() -> series.findActiveByRoomsSince(List.of(1L, 2L), LocalDate.now()),
+                Map.of("reservation_series", SERIES_ROOM_UNTIL_INDEX,
+                        "reservation_series_exceptions", SERIES_EXCEPTIONS_SERIES_INDEX));
+    }
+
+    @Test
+    void seriesByUserUseUserIndex() {
+        assertPlans(() -> series.findByUserId(1L),
+                Map.of("reservation_series", SERIES_USER_INDEX,
+                        "reservation_series_exceptions", SERIES_EXCEPTIONS_SERIES_INDEX));
+    }
+
+    @Test
+    void seriesByIdLoadsExceptionsThroughSeriesIndex() {
+        assertPlans(() -> series.findWithExceptionsById(1L),
+                Map.of("reservation_series_exceptions", SERIES_EXCEPTIONS_SERIES_INDEX));
+    }
+
+    // tabela -> índice esperado; tabelas fora do mapa só não podem ser lidas sem índice
+    private void assertPlans(Runnable query, Map<String, String> expected) {
+        CAPTURED.clear();
+        query.run();
+        List<String> statements = CAPTURED.selects();
+        assertThat(statements).as("SQL gerado pelo Hibernate").isNotEmpty();
+
+        for (String sql : statements) {
+            List<String> problems = new ArrayList<>();
+            List<JsonNode> scans = new ArrayList<>();
+            collectScans(explain(sql).get(0).get("Plan"), scans);
+            for (JsonNode scan : scans) {
+                JsonNode index = scan.get("Index Name");
+                if (index == null) {
+                    problems.add(scan.get("Node Type").asText() + " em " + scan.path("Relation Name").asText());
+                    continue;
+                }
+                // partições de índice e de tabela respondem pelo índice e pela tabela raiz
+                Map<String, Object> root = jdbcTemplate.queryForMap("""
+                    SELECT coalesce(pg_partition_root(i.indexrelid)::text, i.indexrelid::regclass::text) AS index_name,
+                           coalesce(pg_partition_root(i.indrelid)::text, i.indrelid::regclass::text) AS table_name
+                      FROM pg_index i WHERE i.indexrelid = to_regclass(?)
+                    """, index.asText());
+                String wanted = expected.get((String) root.get("table_name"));
+                if (wanted != null && !wanted.equals(root.get("index_name"))) {
+                    problems.add("usa " + root.get("index_name") + " em vez de " + wanted);
+                }
+            }
+            assertThat(problems).as("plano de %s", sql).isEmpty();
+        }
+    }
+
+    // os parâmetros do JDBC viram $n de um PREPARE; com o plano genérico forçado os valores
+    // (NULL) do EXECUTE não entram no plano
+    private JsonNode explain(String sql) {
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, "\\$" + (++parameters));
+        }
+        matcher.appendTail(numbered);
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        jdbcTemplate.execute("PREPARE checked_query AS " + numbered);
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) EXECUTE checked_query" + arguments, String.class);
+            return JSON.readTree(plan);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Plano ilegível de " + sql, ex);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE checked_query");
+        }
+    }
+
+    // nós que leem uma tabela ou um índice; Bitmap Heap Scan é coberto pelo Bitmap Index Scan filho
+    private static void collectScans(JsonNode node, List<JsonNode> scans) {
+        String type = node.path("Node Type").asText();
+        if (node.has("Index Name") || (node.has("Relation Name") && !"Bitmap Heap Scan".equals(type))) {
+            scans.add(node);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans);
+        }
+    }
+
+    // SELECTs preparados pelo Hibernate desde o último clear()
+    static class CapturedSql implements StatementInspector {
+
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<String> selects() {
+            synchronized (statements) {
+                return statements.stream()
+                        .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                        .toList();
+            }
+        }
+    }
+}
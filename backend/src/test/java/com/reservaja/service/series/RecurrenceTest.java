@@ -0,0 +1,164 @@
+package com.reservaja.service.series;
+
+import com.reservaja.model.entity.ReservationSeries.Frequency;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regras de recorrência: meses sem o dia da primeira ocorrência, exceções, limite de
+ * {@code until} e as bordas da janela [from, to). Além dos casos escritos, cada regra é
+ * comparada com a expansão ocorrência a ocorrência em janelas espalhadas pela série, o que
+ * cobre o salto direto de {@code firstIndex}.
+ */
+class RecurrenceTest {
+
+    private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+    @Test
+    void monthlyOnThe31stSkipsShorterMonths() {
+        Recurrence rule = rule(Frequency.MONTHLY, 1, "2027-01-31T09:00", ONE_HOUR, "2027-12-31");
+
+        assertThat(rule.startsOverlapping(at("2027-01-01T00:00"), at("2028-01-01T00:00"))).containsExactly(
+                at("2027-01-31T09:00"), at("2027-03-31T09:00"), at("2027-05-31T09:00"), at("2027-07-31T09:00"),
+                at("2027-08-31T09:00"), at("2027-10-31T09:00"), at("2027-12-31T09:00"));
+        // plusMonths ajustaria para 28/02 e 30/04: esses dias não são ocorrências
+        assertThat(rule.overlaps(at("2027-02-28T09:00"), at("2027-02-28T10:00"))).isFalse();
+        assertThat(rule.overlaps(at("2027-04-30T09:00"), at("2027-04-30T10:00"))).isFalse();
+    }
+
+    @Test
+    void monthlyOnThe31stWithIntervalKeepsTheCycle() {
+        // ago, out, dez, fev (não tem 31), abr (não tem), jun (não tem), ago...
+        Recurrence rule = rule(Frequency.MONTHLY, 2, "2027-08-31T09:00", ONE_HOUR, "2028-12-31");
+
+        assertThat(rule.startsOverlapping(at("2027-01-01T00:00"), at("2029-01-01T00:00"))).containsExactly(
+                at("2027-08-31T09:00"), at("2027-10-31T09:00"), at("2027-12-31T09:00"),
+                at("2028-08-31T09:00"), at("2028-10-31T09:00"), at("2028-12-31T09:00"));
+    }
+
+    @Test
+    void yearlyOnFebruary29OnlyInLeapYears() {
+        Recurrence rule = rule(Frequency.MONTHLY, 12, "2024-02-29T10:00", ONE_HOUR, "2032-12-31");
+
+        assertThat(rule.startsOverlapping(at("2024-01-01T00:00"), at("2033-01-01T00:00"))).containsExactly(
+                at("2024-02-29T10:00"), at("2028-02-29T10:00"), at("2032-02-29T10:00"));
+        assertThat(rule.overlaps(at("2025-01-01T00:00"), at("2028-01-01T00:00"))).isFalse();
+        assertThat(rule.overlaps(at("2028-02-29T10:30"), at("2028-02-29T10:31"))).isTrue();
+    }
+
+    @Test
+    void exceptionsAreSkipped() {
+        Recurrence rule = new Recurrence(Frequency.WEEKLY, 1, at("2027-03-02T09:00"), Duration.ofMinutes(30),
+                LocalDate.parse("2027-03-30"), Set.of(LocalDate.parse("2027-03-16")));
+
+        assertThat(rule.startsOverlapping(at("2027-03-01T00:00"), at("2027-04-01T00:00"))).containsExactly(
+                at("2027-03-02T09:00"), at("2027-03-09T09:00"), at("2027-03-23T09:00"), at("2027-03-30T09:00"));
+        assertThat(rule.overlaps(at("2027-03-16T09:00"), at("2027-03-16T09:30"))).isFalse();
+    }
+
+    @Test
+    void untilIncludesItsDayAndNothingAfter() {
+        // termina depois da meia-noite: a ocorrência do dia "until" passa para o dia seguinte
+        Recurrence rule = rule(Frequency.DAILY, 1, "2027-01-01T22:00", Duration.ofHours(4), "2027-01-10");
+
+        assertThat(rule.lastEnd()).isEqualTo(at("2027-01-11T02:00"));
+        assertThat(rule.startsOverlapping(at("2027-01-11T00:00"), at("2027-01-12T00:00")))
+                .containsExactly(at("2027-01-10T22:00"));
+        assertThat(rule.overlaps(at("2027-01-11T02:00"), at("2027-01-12T00:00"))).isFalse();
+        assertThat(rule.overlaps(at("2027-01-11T22:00"), at("2027-01-11T23:00"))).isFalse();
+    }
+
+    @Test
+    void windowEdgesAreHalfOpen() {
+        // ocorrência em [09:00, 10:00)
+        Recurrence rule = rule(Frequency.WEEKLY, 1, "2027-03-02T09:00", ONE_HOUR, "2027-12-31");
+
+        assertThat(rule.startsOverlapping(at("2027-03-09T10:00"), at("2027-03-09T11:00"))).isEmpty();
+        assertThat(rule.startsOverlapping(at("2027-03-09T08:00"), at("2027-03-09T09:00"))).isEmpty();
+        assertThat(rule.startsOverlapping(at("2027-03-09T09:59"), at("2027-03-09T10:00")))
+                .containsExactly(at("2027-03-09T09:00"));
+        assertThat(rule.startsOverlapping(at("2027-03-09T08:00"), at("2027-03-09T09:01")))
+                .containsExactly(at("2027-03-09T09:00"));
+        // antes da primeira ocorrência e janelas vazias
+        assertThat(rule.overlaps(at("2027-03-01T00:00"), at("2027-03-02T09:00"))).isFalse();
+        assertThat(rule.overlaps(at("2027-03-09T09:30"), at("2027-03-09T09:30"))).isFalse();
+    }
+
+    @Test
+    void anyStartVisitsEveryOccurrenceAndStops() {
+        Recurrence rule = rule(Frequency.MONTHLY, 1, "2027-01-31T09:00", ONE_HOUR, "2027-12-31");
+
+        List<LocalDateTime> visited = new ArrayList<>();
+        assertThat(rule.anyStart(start -> {
+            visited.add(start);
+            return false;
+        })).isFalse();
+        assertThat(visited).isEqualTo(expand(rule));
+
+        visited.clear();
+        assertThat(rule.anyStart(start -> visited.add(start) && visited.size() == 2)).isTrue();
+        assertThat(visited).containsExactly(at("2027-01-31T09:00"), at("2027-03-31T09:00"));
+    }
+
+    @Test
+    void windowsAnywhereInTheSeriesMatchTheFullExpansion() {
+        List<Recurrence> rules = List.of(
+                rule(Frequency.DAILY, 3, "2026-01-01T08:00", Duration.ofMinutes(90), "2028-12-31"),
+                rule(Frequency.DAILY, 1, "2026-01-01T23:30", Duration.ofHours(24), "2026-09-30"),
+                rule(Frequency.WEEKLY, 2, "2026-01-05T14:00", ONE_HOUR, "2029-06-30"),
+                rule(Frequency.MONTHLY, 1, "2026-01-31T09:00", ONE_HOUR, "2030-12-31"),
+                rule(Frequency.MONTHLY, 5, "2026-01-31T18:00", Duration.ofHours(8), "2034-12-31"),
+                rule(Frequency.MONTHLY, 12, "2024-02-29T10:00", ONE_HOUR, "2040-12-31"));
+
+        for (Recurrence rule : rules) {
+            List<LocalDateTime> all = expand(rule);
+            for (LocalDateTime cursor = rule.firstStart().minusDays(3); cursor.isBefore(rule.lastEnd().plusDays(3));
+                 cursor = cursor.plusHours(37)) {
+                LocalDateTime from = cursor;
+                for (Duration width : List.of(Duration.ofMinutes(1), Duration.ofHours(5), Duration.ofDays(40))) {
+                    LocalDateTime to = from.plus(width);
+                    List<LocalDateTime> expected = all.stream()
+                            .filter(start -> start.isBefore(to) && start.plus(rule.duration()).isAfter(from))
+                            .toList();
+                    assertThat(rule.startsOverlapping(from, to)).as("%s em [%s, %s)", rule, from, to).isEqualTo(expected);
+                    assertThat(rule.overlaps(from, to)).isEqualTo(!expected.isEmpty());
+                }
+            }
+        }
+    }
+
+    // expansão ocorrência a ocorrência, sem o atalho de firstIndex
+    private static List<LocalDateTime> expand(Recurrence rule) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (long k = 0; ; k++) {
+            LocalDateTime start = switch (rule.frequency()) {
+                case DAILY -> rule.firstStart().plusDays(k * rule.interval());
+                case WEEKLY -> rule.firstStart().plusWeeks(k * rule.interval());
+                case MONTHLY -> rule.firstStart().plusMonths(k * rule.interval());
+            };
+            if (start.toLocalDate().isAfter(rule.until())) {
+                return starts;
+            }
+            boolean sameDay = start.getDayOfMonth() == rule.firstStart().getDayOfMonth();
+            if ((rule.frequency() != Frequency.MONTHLY || sameDay) && !rule.exceptions().contains(start.toLocalDate())) {
+                starts.add(start);
+            }
+        }
+    }
+
+    private static Recurrence rule(Frequency frequency, int interval, String firstStart, Duration duration, String until) {
+        return new Recurrence(frequency, interval, at(firstStart), duration, LocalDate.parse(until), Set.of());
+    }
+
+    private static LocalDateTime at(String dateTime) {
+        return LocalDateTime.parse(dateTime);
+    }
+}